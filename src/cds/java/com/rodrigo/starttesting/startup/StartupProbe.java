@@ -0,0 +1,109 @@
+package com.rodrigo.starttesting.startup;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the packaged application and times it to the first successful
+ * {@code GET /api/employees/{id}}, against a seeded in-memory H2 database so MySQL is not
+ * part of the measurement. {@code mvn -Paot-cds package} runs {@code train} to record the
+ * CDS archive, launching this file in source-file mode, so it needs no compile step, works
+ * when tests are skipped and never ships in the application jar. It only uses the JDK for
+ * that reason. {@code src/cds/java} is also a test source root, for the startup benchmark.
+ */
+public final class StartupProbe {
+
+    private static final String SEED = "CREATE TABLE IF NOT EXISTS employees(id BIGINT AUTO_INCREMENT PRIMARY KEY,"
+            + " first_name VARCHAR(255) NOT NULL, last_name VARCHAR(255) NOT NULL, email VARCHAR(255) NOT NULL)\\;"
+            + "MERGE INTO employees KEY(id) VALUES(1, 'Startup', 'Probe', 'startup@probe.test')";
+
+    private StartupProbe() {
+    }
+
+    /** {@code train <target>}: one run of the cds jar that writes the archive on exit. */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2 || !"train".equals(args[0])) {
+            throw new IllegalArgumentException("Usage: StartupProbe train <target directory>");
+        }
+        Path target = Path.of(args[1]);
+        Path archive = archive(target);
+        long millis = timeToFirstRequest(optimized(target, "-XX:ArchiveClassesAtExit=" + archive));
+        System.out.printf("training run: %d ms, archive written to %s%n", millis, archive);
+    }
+
+    public static Path archive(Path target) {
+        return target.resolve("cds").resolve("application.jsa");
+    }
+
+    public static List<String> baseline(Path target) {
+        return List.of("-jar", findJar(target.toFile(), "").toString());
+    }
+
+    public static List<String> optimized(Path target, String cdsOption) {
+        return List.of(cdsOption, "-Dspring.aot.enabled=true", "-jar", findJar(target.resolve("cds").toFile(), "-cds").toString());
+    }
+
+    public static long timeToFirstRequest(List<String> jvmCommand) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmCommand);
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=jdbc:h2:mem:ems;INIT=" + SEED);
+        command.add("--spring.datasource.username=sa");
+        command.add("--spring.datasource.password=");
+        command.add("--spring.jpa.show-sql=false");
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees/1")).build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (process.isAlive()) {
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("Application exited with " + process.exitValue() + ": " + command);
+        } finally {
+            // SIGTERM, so a training run gets to write its archive on the way out
+            process.destroy();
+            if (!process.waitFor(60, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static Path findJar(File directory, String classifier) {
+        File[] jars = directory.listFiles((dir, name) -> name.endsWith(classifier + ".jar")
+                && (classifier.length() > 0 || !name.endsWith("-cds.jar")));
+        if (jars == null || jars.length == 0) {
+            throw new IllegalStateException("No application jar in " + directory + ", run mvn -Paot-cds package first");
+        }
+        return jars[0].toPath();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.rodrigo.starttesting.aggregate;
+
+import com.rodrigo.starttesting.event.EmployeeChangeEvent;
+import com.rodrigo.starttesting.model.Employee;
+import com.rodrigo.starttesting.model.EmployeeCount;
+import com.rodrigo.starttesting.repository.EmployeeStore;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Headcounts kept up to date from committed employee changes, so dashboards don't
+ * have to scan the table. Counters are {@link LongAdder}s, which stripe concurrent
+ * increments across cells. A periodic reconciliation recounts from the repository.
+ * Changes that arrive while it runs are also recorded aside and replayed onto the
+ * recount before it replaces the counters, so none is lost; one the recount already
+ * saw may be counted twice until the next pass.
+ */
+@Component
+public class EmployeeAggregates {
+
+    private final EmployeeStore employeeRepository;
+    private volatile Counters counters = new Counters();
+    // changes are applied under the read lock, the recording is started and replayed under the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Counters recording;
+
+    public EmployeeAggregates(EmployeeStore employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChange(EmployeeChangeEvent event) {
+        lock.readLock().lock();
+        try {
+            apply(counters, event);
+            if (recording != null) {
+                apply(recording, event);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${employees.aggregates.reconcile-initial-delay:0}",
+            fixedDelayString = "${employees.aggregates.reconcile-interval:300000}")
+    public synchronized void reconcile() {
+        lock.writeLock().lock();
+        try {
+            recording = new Counters();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Counters recounted = new Counters();
+        List<EmployeeCount> byEmailDomain = employeeRepository.countByEmailDomain();
+        for (EmployeeCount count : byEmailDomain) {
+            recounted.byEmailDomain.computeIfAbsent(count.getKey(), key -> new LongAdder()).add(count.getCount());
+            recounted.total.add(count.getCount());
+        }
+        for (EmployeeCount count : employeeRepository.countByLastNameInitial()) {
+            recounted.byLastNameInitial.computeIfAbsent(count.getKey(), key -> new LongAdder()).add(count.getCount());
+        }
+        lock.writeLock().lock();
+        try {
+            recounted.addAll(recording);
+            recording = null;
+            counters = recounted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long total() {
+        return counters.total.sum();
+    }
+
+    public Map<String, Long> countsByEmailDomain() {
+        return snapshot(counters.byEmailDomain);
+    }
+
+    public Map<String, Long> countsByLastNameInitial() {
+        return snapshot(counters.byLastNameInitial);
+    }
+
+    private static void apply(Counters target, EmployeeChangeEvent event) {
+        switch (event.getType()) {
+            case CREATED -> target.add(event.getEmployee(), 1);
+            case UPDATED -> {
+                // without the previous state the update inserted a row
+                if (event.getPrevious() != null) {
+                    target.add(event.getPrevious(), -1);
+                }
+                target.add(event.getEmployee(), 1);
+            }
+            case DELETED -> {
+                if (event.getPrevious() != null) {
+                    target.add(event.getPrevious(), -1);
+                }
+            }
+        }
+    }
+
+    private static Map<String, Long> snapshot(ConcurrentMap<String, LongAdder> counters) {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((key, counter) -> {
+            long count = counter.sum();
+            if (count > 0) {
+                snapshot.put(key, count);
+            }
+        });
+        return snapshot;
+    }
+
+    private static final class Counters {
+        private final LongAdder total = new LongAdder();
+        private final ConcurrentMap<String, LongAdder> byEmailDomain = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, LongAdder> byLastNameInitial = new ConcurrentHashMap<>();
+
+        void add(Employee employee, long delta) {
+            total.add(delta);
+            byEmailDomain.computeIfAbsent(EmployeeCount.emailDomain(employee.getEmail()), key -> new LongAdder()).add(delta);
+            byLastNameInitial.computeIfAbsent(EmployeeCount.lastNameInitial(employee.getLastName()), key -> new LongAdder()).add(delta);
+        }
+
+        void addAll(Counters other) {
+            total.add(other.total.sum());
+            other.byEmailDomain.forEach((key, counter) -> byEmailDomain.computeIfAbsent(key, k -> new LongAdder()).add(counter.sum()));
+            other.byLastNameInitial.forEach((key, counter) -> byLastNameInitial.computeIfAbsent(key, k -> new LongAdder()).add(counter.sum()));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.rodrigo.starttesting.archive;
+
+import com.rodrigo.starttesting.repository.EmployeeStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves soft-deleted employees out of the hot {@code employees} table in small batches,
+ * one transaction each, so no single run holds many row locks for long.
+ */
+@Component
+public class EmployeeArchiver {
+
+    private final EmployeeStore employeeRepository;
+    private final int batchSize;
+
+    public EmployeeArchiver(EmployeeStore employeeRepository,
+                            @Value("${employees.archive.batch-size:500}") int batchSize) {
+        this.employeeRepository = employeeRepository;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${employees.archive.initial-delay:60000}",
+            fixedDelayString = "${employees.archive.interval:60000}")
+    public long archive() {
+        long archived = 0;
+        int moved;
+        do {
+            moved = employeeRepository.archiveDeleted(batchSize);
+            archived += moved;
+        } while (moved > 0 && !Thread.currentThread().isInterrupted());
+        return archived;
+    }
+}
@@ -0,0 +1,66 @@
+package com.rodrigo.starttesting.config;
+
+import com.rodrigo.starttesting.deadline.RequestDeadline;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+
+/**
+ * Applies the remaining {@link RequestDeadline} budget as the query timeout of every
+ * statement, so the database abandons work the client has given up on. Once the deadline
+ * has passed, creating a statement fails without contacting the database. JDBC timeouts
+ * are whole seconds, so the remaining budget is rounded up.
+ */
+public class DeadlineDataSource extends DelegatingDataSource {
+
+    public DeadlineDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return withDeadlines(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return withDeadlines(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private static Connection withDeadlines(Connection target) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("equals".equals(method.getName())) {
+                        return proxy == args[0];
+                    }
+                    if ("hashCode".equals(method.getName())) {
+                        return System.identityHashCode(proxy);
+                    }
+                    boolean createsStatement = Statement.class.isAssignableFrom(method.getReturnType());
+                    RequestDeadline deadline = createsStatement ? RequestDeadline.current() : null;
+                    if (deadline != null && deadline.isExpired()) {
+                        throw new SQLTimeoutException("Request deadline exceeded");
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                    if (deadline != null) {
+                        int seconds = (int) Math.max(1, (deadline.remainingMillis() + 999) / 1000);
+                        Statement statement = (Statement) result;
+                        if (statement.getQueryTimeout() == 0 || statement.getQueryTimeout() > seconds) {
+                            statement.setQueryTimeout(seconds);
+                        }
+                    }
+                    return result;
+                });
+    }
+}
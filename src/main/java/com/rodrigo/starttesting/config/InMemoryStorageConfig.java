@@ -0,0 +1,16 @@
+package com.rodrigo.starttesting.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration(proxyBeanMethods = false)
+@Profile("in-memory")
+public class InMemoryStorageConfig {
+
+    @Bean
+    public PlatformTransactionManager transactionManager() {
+        return new SynchronizationOnlyTransactionManager();
+    }
+}
@@ -0,0 +1,48 @@
+package com.rodrigo.starttesting.config;
+
+import com.rodrigo.starttesting.repository.sharding.EmployeeShard;
+import com.rodrigo.starttesting.repository.sharding.ShardedEmployeeRepository;
+import com.rodrigo.starttesting.repository.sharding.ShardingProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration(proxyBeanMethods = false)
+@Profile("sharded")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "close")
+    public ShardedEmployeeRepository employeeRepository(ShardingProperties properties, ResourceLoader resourceLoader) {
+        Resource schema = resourceLoader.getResource("classpath:sharding/schema-" + properties.getPlatform() + ".sql");
+        List<ShardingProperties.Shard> configured = properties.getShards();
+        List<EmployeeShard> shards = new ArrayList<>();
+        for (int i = 0; i < configured.size(); i++) {
+            ShardingProperties.Shard shard = configured.get(i);
+            DataSource dataSource = new DeadlineDataSource(DataSourceBuilder.create()
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build());
+            new ResourceDatabasePopulator(schema).execute(dataSource);
+            shards.add(new EmployeeShard(i, configured.size(), dataSource, properties.getIdBlockSize()));
+        }
+        return new ShardedEmployeeRepository(shards, "mysql".equals(properties.getPlatform()));
+    }
+
+    // each shard call commits on its own; this only drives the service's after-commit events
+    @Bean
+    public PlatformTransactionManager transactionManager() {
+        return new SynchronizationOnlyTransactionManager();
+    }
+}
@@ -0,0 +1,30 @@
+package com.rodrigo.starttesting.config;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+/**
+ * Transaction manager for storage backends without a JPA transaction manager.
+ * It keeps the service layer's {@code @Transactional} boundaries and after-commit
+ * event publication working, but has no resources to commit or roll back.
+ */
+public class SynchronizationOnlyTransactionManager extends AbstractPlatformTransactionManager {
+
+    @Override
+    protected Object doGetTransaction() {
+        return new Object();
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.rodrigo.starttesting.controller;
+
+import com.rodrigo.starttesting.aggregate.EmployeeAggregates;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/employees/aggregates")
+public class EmployeeAggregateController {
+
+    private EmployeeAggregates employeeAggregates;
+
+    public EmployeeAggregateController(EmployeeAggregates employeeAggregates) {
+        this.employeeAggregates = employeeAggregates;
+    }
+
+    @GetMapping("total")
+    @ResponseStatus(HttpStatus.OK)
+    public Map<String, Long> getTotal() {
+        return Map.of("total", employeeAggregates.total());
+    }
+
+    @GetMapping("email-domains")
+    @ResponseStatus(HttpStatus.OK)
+    public Map<String, Long> getCountsByEmailDomain() {
+        return employeeAggregates.countsByEmailDomain();
+    }
+
+    @GetMapping("last-name-initials")
+    @ResponseStatus(HttpStatus.OK)
+    public Map<String, Long> getCountsByLastNameInitial() {
+        return employeeAggregates.countsByLastNameInitial();
+    }
+}
@@ -1,11 +1,24 @@
 package com.rodrigo.starttesting.controller;
 
+import com.rodrigo.starttesting.deadline.RequestTimeout;
+import com.rodrigo.starttesting.event.EmployeeChangeFeed;
+import com.rodrigo.starttesting.exception.DeadlineExceededException;
+import com.rodrigo.starttesting.exception.UnsupportedQueryException;
 import com.rodrigo.starttesting.model.Employee;
+import com.rodrigo.starttesting.repository.EmployeeCriteria;
 import com.rodrigo.starttesting.service.EmployeeService;
+import org.springframework.core.NestedRuntimeException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.sql.SQLTimeoutException;
 import java.util.List;
 
 @RestController
@@ -13,9 +26,11 @@ import java.util.List;
 public class EmployeeController {
 
     private EmployeeService employeeService;
+    private EmployeeChangeFeed employeeChangeFeed;
 
-    public EmployeeController(EmployeeService employeeService) {
+    public EmployeeController(EmployeeService employeeService, EmployeeChangeFeed employeeChangeFeed) {
         this.employeeService = employeeService;
+        this.employeeChangeFeed = employeeChangeFeed;
     }
 
     @PostMapping
@@ -26,8 +41,19 @@ public class EmployeeController {
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public List<Employee> getAllEmployees(){
-        return employeeService.getAllEmployees();
+    @RequestTimeout(5000)
+    public List<Employee> getAllEmployees(@RequestParam(value = "emailDomain", required = false) String emailDomain,
+                                          @RequestParam(value = "namePrefix", required = false) String namePrefix,
+                                          Sort sort){
+        if (emailDomain == null && namePrefix == null && sort.isUnsorted()) {
+            return employeeService.getAllEmployees();
+        }
+        return employeeService.searchEmployees(EmployeeCriteria.of(emailDomain, namePrefix, sort));
+    }
+
+    @GetMapping(path = "changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return employeeChangeFeed.subscribe(lastEventId);
     }
 
     @GetMapping("{id}")
@@ -41,10 +67,14 @@ public class EmployeeController {
     public ResponseEntity<Employee> updateEmployee(@PathVariable("id") long employeeId, @RequestBody Employee employee) {
         return employeeService.getEmployeeById(employeeId)
                 .map(savedEmployee -> {
-                    savedEmployee.setFirstName(employee.getFirstName());
-                    savedEmployee.setLastName(employee.getLastName());
-                    savedEmployee.setEmail(employee.getEmail());
-                    Employee updated = employeeService.updateEmployee(savedEmployee);
+                    // a detached copy, so the service still sees the stored state before the update
+                    Employee changes = Employee.builder()
+                            .id(savedEmployee.getId())
+                            .firstName(employee.getFirstName())
+                            .lastName(employee.getLastName())
+                            .email(employee.getEmail())
+                            .build();
+                    Employee updated = employeeService.updateEmployee(changes);
                     return new ResponseEntity<>(updated, HttpStatus.OK);
                 })
                 .orElseGet(() -> ResponseEntity.notFound().build());
@@ -55,4 +85,23 @@ public class EmployeeController {
         employeeService.deleteEmployee(employeeId);
         return new ResponseEntity<>("Employee deleted", HttpStatus.OK);
     }
+
+    @ExceptionHandler(UnsupportedQueryException.class)
+    public ResponseEntity<String> handleUnsupportedQuery(UnsupportedQueryException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler({DeadlineExceededException.class, QueryTimeoutException.class})
+    public ResponseEntity<String> handleDeadlineExceeded(RuntimeException e) {
+        return new ResponseEntity<>("Request deadline exceeded", HttpStatus.GATEWAY_TIMEOUT);
+    }
+
+    // a connection that could not be had in time fails the transaction begin rather than a query
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<String> handleConnectionUnavailable(NestedRuntimeException e) {
+        if (e.contains(SQLTimeoutException.class)) {
+            return handleDeadlineExceeded(e);
+        }
+        throw e;
+    }
 }
@@ -0,0 +1,62 @@
+package com.rodrigo.starttesting.deadline;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Binds a {@link RequestDeadline} to each request. The budget is the endpoint default
+ * ({@link RequestTimeout}, or the global default), tightened by the client's
+ * {@value #TIMEOUT_HEADER} header in milliseconds. A request whose budget is already
+ * spent is answered with 504 before reaching the controller.
+ */
+public class RequestDeadlineInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    private final long defaultTimeoutMillis;
+
+    /** @param defaultTimeoutMillis budget for endpoints without {@link RequestTimeout}, 0 for none */
+    public RequestDeadlineInterceptor(long defaultTimeoutMillis) {
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        long timeoutMillis = defaultTimeoutMillis;
+        if (handler instanceof HandlerMethod method && method.hasMethodAnnotation(RequestTimeout.class)) {
+            timeoutMillis = method.getMethodAnnotation(RequestTimeout.class).value();
+        }
+        String header = request.getHeader(TIMEOUT_HEADER);
+        if (header != null) {
+            long requested;
+            try {
+                requested = Long.parseLong(header.trim());
+            } catch (NumberFormatException e) {
+                response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid " + TIMEOUT_HEADER + " header");
+                return false;
+            }
+            timeoutMillis = timeoutMillis > 0 ? Math.min(timeoutMillis, requested) : requested;
+            if (timeoutMillis <= 0) {
+                response.sendError(HttpStatus.GATEWAY_TIMEOUT.value(), "Request deadline exceeded");
+                return false;
+            }
+        }
+        if (timeoutMillis > 0) {
+            RequestDeadline.set(RequestDeadline.afterMillis(timeoutMillis));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestDeadline.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestDeadline.clear();
+    }
+}
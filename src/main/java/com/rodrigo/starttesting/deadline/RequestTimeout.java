@@ -0,0 +1,19 @@
+package com.rodrigo.starttesting.deadline;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Default time budget in milliseconds for a handler method, replacing
+ * {@code employees.deadline.default-timeout}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RequestTimeout {
+
+    long value();
+}
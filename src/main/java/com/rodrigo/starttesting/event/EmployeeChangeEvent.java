@@ -0,0 +1,46 @@
+package com.rodrigo.starttesting.event;
+
+import com.rodrigo.starttesting.model.Employee;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class EmployeeChangeEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final long employeeId;
+    // null for DELETED
+    private final Employee employee;
+    // state before an UPDATED or DELETED change, null when it was not loaded
+    private final Employee previous;
+
+    public static EmployeeChangeEvent created(Employee employee) {
+        return new EmployeeChangeEvent(Type.CREATED, employee.getId(), snapshot(employee), null);
+    }
+
+    public static EmployeeChangeEvent updated(Employee previous, Employee employee) {
+        return new EmployeeChangeEvent(Type.UPDATED, employee.getId(), snapshot(employee), snapshot(previous));
+    }
+
+    public static EmployeeChangeEvent deleted(long employeeId, Employee previous) {
+        return new EmployeeChangeEvent(Type.DELETED, employeeId, null, snapshot(previous));
+    }
+
+    // the entity stays managed after the service call, so listeners get a detached copy
+    public static Employee snapshot(Employee employee) {
+        if (employee == null) {
+            return null;
+        }
+        return Employee.builder()
+                .id(employee.getId())
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .build();
+    }
+}
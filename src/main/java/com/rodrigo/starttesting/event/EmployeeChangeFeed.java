@@ -0,0 +1,286 @@
+package com.rodrigo.starttesting.event;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fans employee changes out to SSE subscribers from a fixed-size ring buffer.
+ * Writers only claim a slot and schedule a dispatch, so a slow subscriber can
+ * never hold up a commit; a subscriber that falls a full ring behind gets a
+ * {@code reset} event and is expected to reload. Subscribers with events are
+ * drained by a bounded pool of writer threads, one writer per subscriber at a
+ * time, so a blocked socket only ties up one writer; a subscriber whose send
+ * takes longer than the send timeout is dropped and its stream failed. When the
+ * writer queue is full a subscriber waits for the next publish or watchdog pass.
+ */
+@Component
+public class EmployeeChangeFeed {
+
+    static final String RESET_EVENT = "reset";
+
+    private final AtomicReferenceArray<Entry> ring;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong();
+    // event ids are "<epoch>-<sequence>" so ids from a previous process are never replayed
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean fanOutPending = new AtomicBoolean();
+    private final ScheduledExecutorService dispatcher;
+    // at most one queued or running task per subscriber, see Subscriber.scheduled
+    private final ThreadPoolExecutor writers;
+    private final long emitterTimeout;
+    private final long sendTimeoutNanos;
+
+    public EmployeeChangeFeed(@Value("${employees.changes.buffer-size:1024}") int bufferSize,
+                              @Value("${employees.changes.dispatcher-threads:4}") int dispatcherThreads,
+                              @Value("${employees.changes.writer-threads:32}") int writerThreads,
+                              @Value("${employees.changes.writer-queue-size:10000}") int writerQueueSize,
+                              @Value("${employees.changes.emitter-timeout:1800000}") long emitterTimeout,
+                              @Value("${employees.changes.send-timeout:10000}") long sendTimeout) {
+        if (bufferSize < 2) {
+            throw new IllegalArgumentException("employees.changes.buffer-size must be at least 2");
+        }
+        if (writerThreads < 1 || writerQueueSize < 1) {
+            throw new IllegalArgumentException("employees.changes.writer-threads and writer-queue-size must be at least 1");
+        }
+        if (sendTimeout <= 0) {
+            throw new IllegalArgumentException("employees.changes.send-timeout must be positive");
+        }
+        int capacity = Integer.highestOneBit(bufferSize - 1) << 1;
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.dispatcher = new ScheduledThreadPoolExecutor(dispatcherThreads, daemonThreads("employee-changes-"));
+        this.writers = new ThreadPoolExecutor(writerThreads, writerThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(writerQueueSize), daemonThreads("employee-changes-writer-"));
+        this.writers.allowCoreThreadTimeOut(true);
+        this.emitterTimeout = emitterTimeout;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeout);
+        long checkEvery = Math.max(1, sendTimeout / 2);
+        dispatcher.scheduleWithFixedDelay(this::dropStalled, checkEvery, checkEvery, TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChange(EmployeeChangeEvent event) {
+        publish(event);
+    }
+
+    public long publish(EmployeeChangeEvent event) {
+        long sequence = cursor.incrementAndGet();
+        ring.set(index(sequence), new Entry(sequence, event));
+        if (fanOutPending.compareAndSet(false, true)) {
+            dispatcher.execute(this::fanOut);
+        }
+        return sequence;
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(new SseEmitter(emitterTimeout), lastEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, String lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter);
+        long head = cursor.get();
+        if (lastEventId == null) {
+            subscriber.next = head + 1;
+        } else {
+            long resumeFrom = parseSequence(lastEventId) + 1;
+            if (resumeFrom <= 0 || resumeFrom > head + 1 || head - resumeFrom >= ring.length()) {
+                subscriber.reset = true;
+                subscriber.next = head + 1;
+            } else {
+                subscriber.next = resumeFrom;
+            }
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+        subscriber.signal();
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        writers.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+            subscriber.emitter.complete();
+        }
+    }
+
+    int largestWriterPoolSize() {
+        return writers.getLargestPoolSize();
+    }
+
+    private void fanOut() {
+        fanOutPending.set(false);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.signal();
+        }
+    }
+
+    // the stalled send keeps its writer thread until the container fails the write; completing
+    // waits for the emitter's lock, so it runs on a writer too rather than on the dispatcher, and
+    // is tried again on the next pass while the writer queue is full
+    private void dropStalled() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long since = subscriber.sendingSince;
+            if (since != 0 && now - since > sendTimeoutNanos) {
+                IOException timeout = new IOException("Subscriber took longer than "
+                        + TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos) + " ms to accept an event");
+                try {
+                    writers.execute(() -> subscriber.emitter.completeWithError(timeout));
+                    subscriber.close();
+                } catch (RejectedExecutionException e) {
+                    // writer queue full
+                }
+            } else if (subscriber.backlogged) {
+                subscriber.backlogged = false;
+                subscriber.signal();
+            }
+        }
+    }
+
+    private static CustomizableThreadFactory daemonThreads(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private long parseSequence(String lastEventId) {
+        int separator = lastEventId.indexOf('-');
+        if (separator < 0 || !epoch.equals(lastEventId.substring(0, separator))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private record Entry(long sequence, EmployeeChangeEvent event) {
+    }
+
+    private final class Subscriber implements Runnable {
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean active = true;
+        // set when the writer queue was full, so the watchdog signals again
+        private volatile boolean backlogged;
+        // System.nanoTime() when the current send started, 0 between sends
+        private volatile long sendingSince;
+        // only touched by the writer thread currently running this subscriber
+        private long next;
+        private boolean reset;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void signal() {
+            if (active && scheduled.compareAndSet(false, true)) {
+                try {
+                    writers.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    if (writers.isShutdown()) {
+                        close();
+                    } else {
+                        backlogged = true;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                drain();
+            } catch (IOException | IllegalStateException e) {
+                close();
+                emitter.completeWithError(e);
+            } finally {
+                sendingSince = 0;
+                scheduled.set(false);
+            }
+            if (active && hasPending()) {
+                signal();
+            }
+        }
+
+        private void drain() throws IOException {
+            while (active) {
+                if (reset) {
+                    reset = false;
+                    send(SseEmitter.event().id(eventId(next - 1)).name(RESET_EVENT).data(""));
+                }
+                Entry entry = ring.get(index(next));
+                if (entry == null || entry.sequence() < next) {
+                    return;
+                }
+                if (entry.sequence() > next) {
+                    // overwritten before we got to it
+                    reset = true;
+                    next = cursor.get() + 1;
+                    continue;
+                }
+                EmployeeChangeEvent event = entry.event();
+                send(SseEmitter.event()
+                        .id(eventId(next))
+                        .name(event.getType().name().toLowerCase(Locale.ROOT))
+                        .data(event, MediaType.APPLICATION_JSON));
+                next++;
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            sendingSince = System.nanoTime();
+            emitter.send(event);
+            sendingSince = 0;
+        }
+
+        private boolean hasPending() {
+            Entry entry = ring.get(index(next));
+            return reset || (entry != null && entry.sequence() >= next);
+        }
+
+        void close() {
+            active = false;
+            subscribers.remove(this);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.rodrigo.starttesting.exception;
+
+public class UnsupportedQueryException extends RuntimeException {
+    public UnsupportedQueryException(String message) {
+        super(message);
+    }
+}
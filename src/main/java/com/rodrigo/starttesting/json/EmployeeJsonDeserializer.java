@@ -0,0 +1,69 @@
+package com.rodrigo.starttesting.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.IgnoredPropertyException;
+import com.rodrigo.starttesting.model.Employee;
+
+import java.io.IOException;
+
+/**
+ * Reads an {@link Employee} token by token without reflection. Coercions and unknown
+ * properties go through the context, and the {@code @JsonIgnore}d properties are skipped,
+ * so mapper features apply as they do for the bean deserializer.
+ */
+public class EmployeeJsonDeserializer extends StdDeserializer<Employee> {
+
+    public EmployeeJsonDeserializer() {
+        super(Employee.class);
+    }
+
+    @Override
+    public Employee deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        String name;
+        if (p.isExpectedStartObjectToken()) {
+            name = p.nextFieldName();
+        } else if (p.hasToken(JsonToken.FIELD_NAME)) {
+            name = p.currentName();
+        } else if (p.hasToken(JsonToken.END_OBJECT)) {
+            name = null;
+        } else {
+            return (Employee) ctxt.handleUnexpectedToken(Employee.class, p);
+        }
+        Employee employee = new Employee();
+        for (; name != null; name = p.nextFieldName()) {
+            p.nextToken();
+            switch (name) {
+                case "id" -> employee.setId(_parseLongPrimitive(p, ctxt));
+                case "firstName" -> employee.setFirstName(parseString(p, ctxt));
+                case "lastName" -> employee.setLastName(parseString(p, ctxt));
+                case "email" -> employee.setEmail(parseString(p, ctxt));
+                case "deletedAt", "emailDomain" -> handleIgnoredProperty(p, ctxt, employee, name);
+                default -> handleUnknownProperty(p, ctxt, employee, name);
+            }
+        }
+        return employee;
+    }
+
+    // what the bean deserializer does with a @JsonIgnore property
+    private void handleIgnoredProperty(JsonParser p, DeserializationContext ctxt, Employee employee, String name) throws IOException {
+        if (ctxt.isEnabled(DeserializationFeature.FAIL_ON_IGNORED_PROPERTIES)) {
+            throw IgnoredPropertyException.from(p, employee, name, null);
+        }
+        p.skipChildren();
+    }
+
+    private String parseString(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_STRING)) {
+            return p.getText();
+        }
+        if (p.hasToken(JsonToken.VALUE_NULL)) {
+            return null;
+        }
+        // numbers, booleans and the rest get the same coercion checks as a String bean property
+        return ctxt.readValue(p, String.class);
+    }
+}
@@ -0,0 +1,20 @@
+package com.rodrigo.starttesting.json;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.rodrigo.starttesting.model.Employee;
+import org.springframework.stereotype.Component;
+
+/**
+ * Replaces Jackson's reflective bean (de)serialization of {@link Employee} with
+ * hand-written streaming code. Spring Boot registers every {@code Module} bean
+ * with the application's {@code ObjectMapper}.
+ */
+@Component
+public class EmployeeJsonModule extends SimpleModule {
+
+    public EmployeeJsonModule() {
+        super("EmployeeJsonModule");
+        addSerializer(Employee.class, new EmployeeJsonSerializer());
+        addDeserializer(Employee.class, new EmployeeJsonDeserializer());
+    }
+}
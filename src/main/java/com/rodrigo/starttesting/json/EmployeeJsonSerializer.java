@@ -0,0 +1,45 @@
+package com.rodrigo.starttesting.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.rodrigo.starttesting.model.Employee;
+
+import java.io.IOException;
+
+/**
+ * Writes an {@link Employee} straight to the generator, in the same shape and property
+ * order as the default bean serializer. Field names are encoded once and reused.
+ */
+public class EmployeeJsonSerializer extends StdSerializer<Employee> {
+
+    static final SerializedString ID = new SerializedString("id");
+    static final SerializedString FIRST_NAME = new SerializedString("firstName");
+    static final SerializedString LAST_NAME = new SerializedString("lastName");
+    static final SerializedString EMAIL = new SerializedString("email");
+
+    public EmployeeJsonSerializer() {
+        super(Employee.class);
+    }
+
+    @Override
+    public void serialize(Employee employee, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(employee);
+        gen.writeFieldName(ID);
+        gen.writeNumber(employee.getId());
+        writeString(gen, FIRST_NAME, employee.getFirstName());
+        writeString(gen, LAST_NAME, employee.getLastName());
+        writeString(gen, EMAIL, employee.getEmail());
+        gen.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator gen, SerializedString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+}
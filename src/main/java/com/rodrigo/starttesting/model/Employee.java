@@ -1,7 +1,12 @@
 package com.rodrigo.starttesting.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.Where;
+
+import java.time.Instant;
 
 @Setter
 @Getter
@@ -9,7 +14,13 @@ import lombok.*;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "employees")
+@Table(name = "employees", indexes = {
+        @Index(name = "idx_employees_active_id", columnList = "deleted_at, id"),
+        @Index(name = "idx_employees_active_last_name", columnList = "deleted_at, last_name, id"),
+        @Index(name = "idx_employees_active_domain", columnList = "deleted_at, email_domain, last_name, id")
+})
+@SQLDelete(sql = "UPDATE employees SET deleted_at = CURRENT_TIMESTAMP WHERE id = ?")
+@Where(clause = "deleted_at IS NULL")
 public class Employee {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -20,5 +31,19 @@ public class Employee {
     private String lastName;
     @Column(nullable = false)
     private String email;
+    // set by a soft delete; the row stays until EmployeeArchiver moves it to employees_archive
+    @JsonIgnore
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+    // derived from email so domain filters can use an index, see EmployeeQueryPlan
+    @JsonIgnore
+    @Column(name = "email_domain")
+    private String emailDomain;
+
+    @PrePersist
+    @PreUpdate
+    void updateEmailDomain() {
+        emailDomain = email == null ? null : EmployeeCount.emailDomain(email);
+    }
 
 }
@@ -0,0 +1,29 @@
+package com.rodrigo.starttesting.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "employees_archive")
+public class EmployeeArchive {
+    @Id
+    private long id;
+    @Column(name = "first_name", nullable = false)
+    private String firstName;
+    @Column(name = "last_name", nullable = false)
+    private String lastName;
+    @Column(nullable = false)
+    private String email;
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+}
@@ -0,0 +1,22 @@
+package com.rodrigo.starttesting.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Locale;
+
+@Getter
+@AllArgsConstructor
+public class EmployeeCount {
+    private String key;
+    private Long count;
+
+    // same keys as the grouping expressions in EmployeeRepository
+    public static String emailDomain(String email) {
+        return email.substring(email.indexOf('@') + 1).toLowerCase(Locale.ROOT);
+    }
+
+    public static String lastNameInitial(String lastName) {
+        return lastName.isEmpty() ? "" : lastName.substring(0, 1).toUpperCase(Locale.ROOT);
+    }
+}
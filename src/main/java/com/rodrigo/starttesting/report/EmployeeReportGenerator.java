@@ -0,0 +1,240 @@
+package com.rodrigo.starttesting.report;
+
+import com.rodrigo.starttesting.model.EmployeeCount;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes every active employee, in id order, to one CSV file followed by {@code #} summary
+ * lines. The id space is split into ranges that are read in parallel by a fork-join pool,
+ * each on its own connection in a read-only transaction, into part files that are then
+ * concatenated in range order. Parallelism should stay below the connection pool size, so
+ * other work still gets connections, see {@link EmployeeReportJob}.
+ */
+public class EmployeeReportGenerator {
+
+    static final String HEADER = "id,first_name,last_name,email";
+
+    private static final String RANGE_QUERY = "SELECT id, first_name, last_name, email FROM employees "
+            + "WHERE id BETWEEN ? AND ? AND deleted_at IS NULL ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate rangeTemplate;
+    private final TransactionTemplate readOnly;
+    private final int parallelism;
+    private final long rangeSize;
+
+    public EmployeeReportGenerator(DataSource dataSource, int parallelism, long rangeSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.rangeTemplate = new JdbcTemplate(dataSource);
+        this.readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.readOnly.setReadOnly(true);
+        this.parallelism = parallelism;
+        this.rangeSize = rangeSize;
+    }
+
+    public ReportTotals generate(Path output) {
+        Path directory = output.toAbsolutePath().getParent();
+        Map<String, Object> bounds = jdbcTemplate.queryForMap(
+                "SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM employees WHERE deleted_at IS NULL");
+        rangeTemplate.setFetchSize(rangeFetchSize());
+        Path work = null;
+        try {
+            work = Files.createTempDirectory(directory, ".employee-report-");
+            List<Path> parts = List.of();
+            ReportTotals totals = new ReportTotals();
+            if (bounds.get("min_id") != null) {
+                long minId = ((Number) bounds.get("min_id")).longValue();
+                long maxId = ((Number) bounds.get("max_id")).longValue();
+                ForkJoinPool pool = new ForkJoinPool(parallelism, this::newWorker, null, false);
+                try {
+                    RangeResult result = pool.invoke(new RangeTask(work, minId, maxId));
+                    parts = result.parts();
+                    totals = result.totals();
+                } finally {
+                    // a failed range leaves its siblings running; they must stop writing before work is deleted
+                    shutdownAndAwait(pool);
+                }
+            }
+            Path temp = work.resolve("report.tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                out.write((HEADER + "\n").getBytes(StandardCharsets.UTF_8));
+                for (Path part : parts) {
+                    Files.copy(part, out);
+                }
+                out.write(totals.toSummary().getBytes(StandardCharsets.UTF_8));
+            }
+            Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return totals;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write employee report to " + output, e);
+        } finally {
+            if (work != null) {
+                FileSystemUtils.deleteRecursively(work.toFile());
+            }
+        }
+    }
+
+    // Connector/J buffers a whole range in memory unless the fetch size is Integer.MIN_VALUE, which streams it
+    // row by row on this connection only; useCursorFetch=true on the URL would put every other statement of the
+    // application on server-side prepares as well
+    private int rangeFetchSize() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return "MySQL".equals(product) ? Integer.MIN_VALUE : 1000;
+    }
+
+    private static void shutdownAndAwait(ForkJoinPool pool) {
+        pool.shutdownNow();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (pool.awaitTermination(1, TimeUnit.MINUTES)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("employee-report-" + thread.getPoolIndex());
+        return thread;
+    }
+
+    private RangeResult readRange(Path directory, long fromId, long toId) throws IOException {
+        Path part = directory.resolve(fromId + ".part");
+        ReportTotals totals = new ReportTotals();
+        try (BufferedWriter writer = Files.newBufferedWriter(part, StandardCharsets.UTF_8)) {
+            readOnly.executeWithoutResult(status -> rangeTemplate.query(RANGE_QUERY, rs -> {
+                String firstName = rs.getString("first_name");
+                String lastName = rs.getString("last_name");
+                String email = rs.getString("email");
+                try {
+                    writer.write(Long.toString(rs.getLong("id")));
+                    writeField(writer, firstName);
+                    writeField(writer, lastName);
+                    writeField(writer, email);
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                totals.add(email, lastName);
+            }, fromId, toId));
+        }
+        return new RangeResult(List.of(part), totals);
+    }
+
+    private static void writeField(Writer writer, String value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private final class RangeTask extends RecursiveTask<RangeResult> {
+        private final Path directory;
+        private final long fromId;
+        private final long toId;
+
+        private RangeTask(Path directory, long fromId, long toId) {
+            this.directory = directory;
+            this.fromId = fromId;
+            this.toId = toId;
+        }
+
+        @Override
+        protected RangeResult compute() {
+            if (toId - fromId < rangeSize) {
+                try {
+                    return readRange(directory, fromId, toId);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            long middle = fromId + (toId - fromId) / 2;
+            RangeTask left = new RangeTask(directory, fromId, middle);
+            left.fork();
+            RangeResult right = new RangeTask(directory, middle + 1, toId).compute();
+            RangeResult first = left.join();
+            List<Path> parts = new ArrayList<>(first.parts());
+            parts.addAll(right.parts());
+            return new RangeResult(parts, first.totals().merge(right.totals()));
+        }
+    }
+
+    private record RangeResult(List<Path> parts, ReportTotals totals) {
+    }
+
+    /** Headcount and its breakdowns, merged from the per-range results. */
+    public static class ReportTotals {
+        private long total;
+        private final Map<String, Long> byEmailDomain = new TreeMap<>();
+        private final Map<String, Long> byLastNameInitial = new TreeMap<>();
+
+        void add(String email, String lastName) {
+            total++;
+            byEmailDomain.merge(EmployeeCount.emailDomain(email), 1L, Long::sum);
+            byLastNameInitial.merge(EmployeeCount.lastNameInitial(lastName), 1L, Long::sum);
+        }
+
+        ReportTotals merge(ReportTotals other) {
+            total += other.total;
+            other.byEmailDomain.forEach((key, count) -> byEmailDomain.merge(key, count, Long::sum));
+            other.byLastNameInitial.forEach((key, count) -> byLastNameInitial.merge(key, count, Long::sum));
+            return this;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public Map<String, Long> getByEmailDomain() {
+            return byEmailDomain;
+        }
+
+        public Map<String, Long> getByLastNameInitial() {
+            return byLastNameInitial;
+        }
+
+        String toSummary() {
+            StringBuilder summary = new StringBuilder("# total,").append(total).append('\n');
+            byEmailDomain.forEach((key, count) -> summary.append("# email_domain,").append(key).append(',').append(count).append('\n'));
+            byLastNameInitial.forEach((key, count) -> summary.append("# last_name_initial,").append(key).append(',').append(count).append('\n'));
+            return summary.toString();
+        }
+    }
+}
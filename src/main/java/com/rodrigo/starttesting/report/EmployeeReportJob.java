@@ -0,0 +1,68 @@
+package com.rodrigo.starttesting.report;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Writes the monthly employee report to {@code employees.report.directory}. Parallelism
+ * defaults to the number of cores, and is always capped at the connection pool size less
+ * {@code employees.report.reserved-connections}, so requests still get connections while
+ * the report runs.
+ */
+@Component
+@Profile("!in-memory & !sharded")
+public class EmployeeReportJob {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private final EmployeeReportGenerator generator;
+    private final Path directory;
+
+    public EmployeeReportJob(DataSource dataSource,
+                             @Value("${employees.report.directory:reports}") String directory,
+                             @Value("${employees.report.parallelism:0}") int parallelism,
+                             @Value("${employees.report.range-size:50000}") long rangeSize,
+                             @Value("${employees.report.reserved-connections:2}") int reservedConnections) {
+        int requested = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        int threads = Math.max(1, Math.min(requested, poolSize(dataSource) - reservedConnections));
+        this.generator = new EmployeeReportGenerator(dataSource, threads, rangeSize);
+        this.directory = Path.of(directory);
+    }
+
+    @Scheduled(cron = "${employees.report.cron:-}")
+    public void generateMonthlyReport() {
+        generate(directory.resolve("employees-" + LocalDate.now() + ".csv"));
+    }
+
+    public EmployeeReportGenerator.ReportTotals generate(Path output) {
+        try {
+            Files.createDirectories(output.toAbsolutePath().getParent());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create report directory for " + output, e);
+        }
+        return generator.generate(output);
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                int size = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+                return size > 0 ? size : DEFAULT_POOL_SIZE;
+            }
+        } catch (SQLException e) {
+            // fall through to the default
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+}
@@ -0,0 +1,63 @@
+package com.rodrigo.starttesting.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Fills {@code email_domain} at startup for rows written before the column existed,
+ * so domain filters see them. Only the id span that still has missing domains is
+ * updated, in primary key ranges of {@code employees.backfill.batch-size} ids, each
+ * its own statement, so no single update scans or locks the whole table. Later runs
+ * find the span empty and update nothing.
+ */
+@Component
+@Profile("!in-memory & !sharded")
+public class EmailDomainBackfill implements ApplicationRunner {
+
+    private static final String PENDING = "SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM employees WHERE email_domain IS NULL";
+
+    // same expression as the domain grouping in EmployeeRepository
+    private static final String BACKFILL = "UPDATE employees SET email_domain = LOWER(SUBSTRING(email, LOCATE('@', email) + 1)) "
+            + "WHERE id BETWEEN ? AND ? AND email_domain IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long batchSize;
+
+    public EmailDomainBackfill(DataSource dataSource, @Value("${employees.backfill.batch-size:1000}") long batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("employees.backfill.batch-size must be at least 1");
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        backfill();
+    }
+
+    /** Returns the number of rows given a domain. */
+    int backfill() {
+        Map<String, Object> pending = jdbcTemplate.queryForMap(PENDING);
+        if (pending.get("min_id") == null) {
+            return 0;
+        }
+        long minId = ((Number) pending.get("min_id")).longValue();
+        long maxId = ((Number) pending.get("max_id")).longValue();
+        int updated = 0;
+        for (long fromId = minId; ; fromId += batchSize) {
+            long toId = maxId - fromId < batchSize ? maxId : fromId + batchSize - 1;
+            updated += jdbcTemplate.update(BACKFILL, fromId, toId);
+            if (toId == maxId) {
+                return updated;
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.rodrigo.starttesting.repository;
+
+public interface EmployeeArchiving {
+
+    /**
+     * Moves up to {@code batchSize} soft-deleted employees to {@code employees_archive}
+     * in one transaction.
+     *
+     * @return the number of employees moved, 0 once none are left
+     */
+    int archiveDeleted(int batchSize);
+}
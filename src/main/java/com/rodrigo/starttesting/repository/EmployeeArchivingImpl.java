@@ -0,0 +1,43 @@
+package com.rodrigo.starttesting.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Native SQL, since the {@code @Where} on {@link com.rodrigo.starttesting.model.Employee}
+ * hides soft-deleted rows from JPQL. The selected rows are locked, skipping rows another
+ * archiver holds where the database supports {@code SKIP LOCKED} (MySQL 8), so archivers on
+ * several nodes take disjoint batches instead of queueing behind each other.
+ */
+class EmployeeArchivingImpl implements EmployeeArchiving {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public int archiveDeleted(int batchSize) {
+        String lock = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getForUpdateSkipLockedString();
+        List<Number> ids = entityManager.createNativeQuery(
+                        "SELECT id FROM employees WHERE deleted_at IS NOT NULL ORDER BY id LIMIT :limit" + lock)
+                .setParameter("limit", batchSize)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Long> batch = ids.stream().map(Number::longValue).toList();
+        entityManager.createNativeQuery("INSERT INTO employees_archive (id, first_name, last_name, email, deleted_at, archived_at) "
+                        + "SELECT id, first_name, last_name, email, deleted_at, CURRENT_TIMESTAMP FROM employees WHERE id IN (:ids)")
+                .setParameter("ids", batch)
+                .executeUpdate();
+        return entityManager.createNativeQuery("DELETE FROM employees WHERE id IN (:ids)")
+                .setParameter("ids", batch)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,88 @@
+package com.rodrigo.starttesting.repository;
+
+import com.rodrigo.starttesting.exception.UnsupportedQueryException;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Filters and sort for the employee list, checked against {@link EmployeeQueryPlan} so the
+ * database always has an index for them. Ties are broken by id in the same direction.
+ */
+@Getter
+public class EmployeeCriteria {
+
+    private final String emailDomain;
+    private final String namePrefix;
+    private final EmployeeQueryPlan plan;
+    private final Sort.Direction direction;
+
+    private EmployeeCriteria(String emailDomain, String namePrefix, EmployeeQueryPlan plan, Sort.Direction direction) {
+        this.emailDomain = emailDomain;
+        this.namePrefix = namePrefix;
+        this.plan = plan;
+        this.direction = direction;
+    }
+
+    /**
+     * @param emailDomain matched exactly, ignoring case and a leading {@code @}
+     * @param namePrefix  matched against the start of the last name
+     * @param sort        a single order on one of the plan's sort properties, or unsorted for the default
+     * @throws UnsupportedQueryException if no index serves the combination
+     */
+    public static EmployeeCriteria of(String emailDomain, String namePrefix, Sort sort) {
+        String domain = StringUtils.hasText(emailDomain)
+                ? StringUtils.trimLeadingCharacter(emailDomain.trim(), '@').toLowerCase(Locale.ROOT)
+                : null;
+        String prefix = StringUtils.hasLength(namePrefix) ? namePrefix : null;
+        boolean byDomain = domain != null;
+        boolean byPrefix = prefix != null;
+        if (sort.isUnsorted()) {
+            return new EmployeeCriteria(domain, prefix, EmployeeQueryPlan.find(byDomain, byPrefix, null).orElseThrow(),
+                    Sort.Direction.ASC);
+        }
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() > 1) {
+            throw new UnsupportedQueryException("Only one sort property is supported, got " + sort);
+        }
+        Sort.Order order = orders.get(0);
+        EmployeeQueryPlan plan = EmployeeQueryPlan.find(byDomain, byPrefix, order.getProperty())
+                .orElseThrow(() -> new UnsupportedQueryException("Sorting by '" + order.getProperty() + "'"
+                        + (byDomain || byPrefix ? " with these filters" : "") + " is not supported, use one of "
+                        + EmployeeQueryPlan.sortPropertiesFor(byDomain, byPrefix)));
+        return new EmployeeCriteria(domain, prefix, plan, order.getDirection());
+    }
+
+    public Sort getSort() {
+        List<Sort.Order> orders = new ArrayList<>();
+        orders.add(new Sort.Order(direction, plan.getSortProperty()));
+        if (!"id".equals(plan.getSortProperty())) {
+            orders.add(new Sort.Order(direction, "id"));
+        }
+        return Sort.by(orders);
+    }
+
+    /**
+     * Exclusive upper bound of the last names starting with {@link #getNamePrefix()}, so the
+     * prefix is a range on the index; {@code null} when there is none.
+     */
+    public String getNamePrefixEnd() {
+        if (namePrefix == null) {
+            return null;
+        }
+        StringBuilder end = new StringBuilder(namePrefix);
+        while (end.length() > 0) {
+            char last = end.charAt(end.length() - 1);
+            if (last < Character.MAX_VALUE) {
+                end.setCharAt(end.length() - 1, (char) (last + 1));
+                return end.toString();
+            }
+            end.setLength(end.length() - 1);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,65 @@
+package com.rodrigo.starttesting.repository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The filter and sort combinations the employee list accepts, each with the index that
+ * serves it. Every index leads with {@code deleted_at}, since every list query also skips
+ * soft-deleted rows, continues with the filter and sort columns and ends with the id
+ * tie-breaker, so matching rows come back already in order and there is no sort step.
+ * Any other combination would filter or sort without an index, so {@link EmployeeCriteria}
+ * rejects it.
+ */
+public enum EmployeeQueryPlan {
+
+    ALL_BY_ID(false, false, "id", "idx_employees_active_id"),
+    ALL_BY_LAST_NAME(false, false, "lastName", "idx_employees_active_last_name"),
+    NAME_PREFIX_BY_LAST_NAME(false, true, "lastName", "idx_employees_active_last_name"),
+    EMAIL_DOMAIN_BY_LAST_NAME(true, false, "lastName", "idx_employees_active_domain"),
+    EMAIL_DOMAIN_AND_NAME_PREFIX_BY_LAST_NAME(true, true, "lastName", "idx_employees_active_domain");
+
+    private final boolean emailDomain;
+    private final boolean namePrefix;
+    private final String sortProperty;
+    private final String index;
+
+    EmployeeQueryPlan(boolean emailDomain, boolean namePrefix, String sortProperty, String index) {
+        this.emailDomain = emailDomain;
+        this.namePrefix = namePrefix;
+        this.sortProperty = sortProperty;
+        this.index = index;
+    }
+
+    public boolean filtersByEmailDomain() {
+        return emailDomain;
+    }
+
+    public boolean filtersByNamePrefix() {
+        return namePrefix;
+    }
+
+    public String getSortProperty() {
+        return sortProperty;
+    }
+
+    public String getIndex() {
+        return index;
+    }
+
+    /** The first plan for these filters, or the one sorting by {@code sortProperty} when given. */
+    static Optional<EmployeeQueryPlan> find(boolean emailDomain, boolean namePrefix, String sortProperty) {
+        return Arrays.stream(values())
+                .filter(plan -> plan.emailDomain == emailDomain && plan.namePrefix == namePrefix)
+                .filter(plan -> sortProperty == null || plan.sortProperty.equals(sortProperty))
+                .findFirst();
+    }
+
+    static List<String> sortPropertiesFor(boolean emailDomain, boolean namePrefix) {
+        return Arrays.stream(values())
+                .filter(plan -> plan.emailDomain == emailDomain && plan.namePrefix == namePrefix)
+                .map(EmployeeQueryPlan::getSortProperty)
+                .toList();
+    }
+}
@@ -1,19 +1,51 @@
 package com.rodrigo.starttesting.repository;
 
 import com.rodrigo.starttesting.model.Employee;
+import com.rodrigo.starttesting.model.EmployeeCount;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeStore, EmployeeSearch, EmployeeArchiving {
+    // fragments are only found on direct superinterfaces, hence EmployeeSearch and EmployeeArchiving again;
+    // the CRUD methods are redeclared so the CrudRepository and EmployeeStore signatures resolve to one method
+    @Override
+    <S extends Employee> S save(S employee);
+
+    @Override
+    Optional<Employee> findById(Long id);
+
+    @Override
+    boolean existsById(Long id);
+
+    @Override
+    List<Employee> findAllById(Iterable<Long> ids);
+
+    @Override
+    void deleteById(Long id);
+
+    @Override
     Optional<Employee> findByEmail(String email);
 
     @Query("SELECT e from Employee e WHERE e.firstName = ?1 AND e.lastName = ?2")
+    @Override
     Employee findByJPQL(String firstName, String lastName);
 
     @Query("SELECT e from Employee e WHERE e.firstName =:firstName AND e.lastName =:lastName")
+    @Override
     Employee findByJPQLNamedParams(@Param("firstName") String firstName, @Param("lastName") String lastName);
+
+    @Query("SELECT new com.rodrigo.starttesting.model.EmployeeCount(LOWER(SUBSTRING(e.email, LOCATE('@', e.email) + 1)), COUNT(e)) " +
+            "FROM Employee e GROUP BY LOWER(SUBSTRING(e.email, LOCATE('@', e.email) + 1))")
+    @Override
+    List<EmployeeCount> countByEmailDomain();
+
+    @Query("SELECT new com.rodrigo.starttesting.model.EmployeeCount(UPPER(SUBSTRING(e.lastName, 1, 1)), COUNT(e)) " +
+            "FROM Employee e GROUP BY UPPER(SUBSTRING(e.lastName, 1, 1))")
+    @Override
+    List<EmployeeCount> countByLastNameInitial();
 }
@@ -0,0 +1,11 @@
+package com.rodrigo.starttesting.repository;
+
+import com.rodrigo.starttesting.model.Employee;
+
+import java.util.List;
+
+public interface EmployeeSearch {
+
+    /** Employees matching {@code criteria}, filtered and sorted by the store. */
+    List<Employee> search(EmployeeCriteria criteria);
+}
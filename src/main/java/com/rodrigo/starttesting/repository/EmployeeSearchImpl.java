@@ -0,0 +1,42 @@
+package com.rodrigo.starttesting.repository;
+
+import com.rodrigo.starttesting.model.Employee;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.Query;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+/**
+ * Runs {@link EmployeeSpecifications#matching(EmployeeCriteria)} as a criteria query, hinted
+ * to use the index of the criteria's {@link EmployeeQueryPlan}. Every plan's index leads with
+ * {@code deleted_at}, so on the filter alone they cost the same and the database could pick
+ * one that leaves the rows to be sorted.
+ */
+class EmployeeSearchImpl implements EmployeeSearch {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Employee> search(EmployeeCriteria criteria) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Employee> query = builder.createQuery(Employee.class);
+        Root<Employee> root = query.from(Employee.class);
+        Predicate predicate = EmployeeSpecifications.matching(criteria).toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(criteria.getSort(), root, builder));
+        TypedQuery<Employee> typedQuery = entityManager.createQuery(query);
+        // rendered as USE INDEX by the MySQL and H2 dialects
+        typedQuery.unwrap(Query.class).addQueryHint(criteria.getPlan().getIndex());
+        return typedQuery.getResultList();
+    }
+}
@@ -0,0 +1,38 @@
+package com.rodrigo.starttesting.repository;
+
+import com.rodrigo.starttesting.model.Employee;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Composable filters behind {@link EmployeeRepository#search(EmployeeCriteria)}.
+ * A name prefix is a range rather than {@code LIKE}, which databases only match
+ * against an index when the pattern is a literal, not a bound parameter.
+ */
+public final class EmployeeSpecifications {
+
+    private EmployeeSpecifications() {
+    }
+
+    public static Specification<Employee> matching(EmployeeCriteria criteria) {
+        Specification<Employee> specification = Specification.where(null);
+        if (criteria.getEmailDomain() != null) {
+            specification = specification.and(hasEmailDomain(criteria.getEmailDomain()));
+        }
+        if (criteria.getNamePrefix() != null) {
+            specification = specification.and(lastNameBetween(criteria.getNamePrefix(), criteria.getNamePrefixEnd()));
+        }
+        return specification;
+    }
+
+    public static Specification<Employee> hasEmailDomain(String emailDomain) {
+        return (root, query, builder) -> builder.equal(root.get("emailDomain"), emailDomain);
+    }
+
+    /** Last names from {@code from} inclusive up to {@code to} exclusive, unbounded when {@code to} is null. */
+    public static Specification<Employee> lastNameBetween(String from, String to) {
+        return (root, query, builder) -> to == null
+                ? builder.greaterThanOrEqualTo(root.get("lastName"), from)
+                : builder.and(builder.greaterThanOrEqualTo(root.get("lastName"), from),
+                        builder.lessThan(root.get("lastName"), to));
+    }
+}
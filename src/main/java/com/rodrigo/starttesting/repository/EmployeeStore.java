@@ -0,0 +1,51 @@
+package com.rodrigo.starttesting.repository;
+
+import com.rodrigo.starttesting.model.Employee;
+import com.rodrigo.starttesting.model.EmployeeCount;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The employee storage operations the application relies on. {@link EmployeeRepository}
+ * serves them through JPA, and the in-memory and sharded backends implement them directly,
+ * so callers never reach JPA-only operations a backend cannot serve.
+ */
+public interface EmployeeStore extends EmployeeSearch, EmployeeArchiving {
+
+    /** Inserts a new employee, assigning its id in place, or updates the one with the same id. */
+    <S extends Employee> S save(S employee);
+
+    Optional<Employee> findById(Long id);
+
+    boolean existsById(Long id);
+
+    Optional<Employee> findByEmail(String email);
+
+    /** The employee with this first and last name, or {@code null}. */
+    Employee findByJPQL(String firstName, String lastName);
+
+    /** Same lookup as {@link #findByJPQL}, which JPA runs with named parameters. */
+    Employee findByJPQLNamedParams(String firstName, String lastName);
+
+    List<Employee> findAll();
+
+    List<Employee> findAll(Sort sort);
+
+    Page<Employee> findAll(Pageable pageable);
+
+    List<Employee> findAllById(Iterable<Long> ids);
+
+    long count();
+
+    List<EmployeeCount> countByEmailDomain();
+
+    List<EmployeeCount> countByLastNameInitial();
+
+    void deleteById(Long id);
+
+    void deleteAll();
+}
@@ -0,0 +1,388 @@
+package com.rodrigo.starttesting.repository.memory;
+
+import com.rodrigo.starttesting.model.Employee;
+import com.rodrigo.starttesting.model.EmployeeCount;
+import com.rodrigo.starttesting.repository.EmployeeCriteria;
+import com.rodrigo.starttesting.repository.EmployeeStore;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Database-free {@link EmployeeStore} for the {@code in-memory} profile.
+ * Employees live off-heap in an {@link OffHeapRecordStore}, keyed by id through a
+ * {@link LongIntHashMap}, with hash indexes on email and (firstName, lastName).
+ * Every call is guarded by one read/write lock. Writes are not undone on rollback,
+ * and deletes are immediate rather than soft, so there is nothing to archive.
+ * The email and name indexes are keyed in lower case, so lookups ignore case like
+ * MySQL's default collation.
+ */
+@Repository
+@Profile("in-memory")
+public class InMemoryEmployeeRepository implements EmployeeStore {
+
+    private static final int SNAPSHOT_MAGIC = 0x454D504C;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongIntHashMap offsets = new LongIntHashMap(1024);
+    private final OffHeapRecordStore records = new OffHeapRecordStore(64 * 1024);
+    private final Map<String, long[]> emailIndex = new HashMap<>();
+    private final Map<String, long[]> nameIndex = new HashMap<>();
+    private final Path snapshotPath;
+    private long lastId;
+
+    public InMemoryEmployeeRepository(@Value("${employees.in-memory.snapshot-path:}") String snapshotPath) {
+        this.snapshotPath = StringUtils.hasText(snapshotPath) ? Path.of(snapshotPath) : null;
+        if (this.snapshotPath != null && Files.exists(this.snapshotPath)) {
+            load(this.snapshotPath);
+        }
+    }
+
+    @Override
+    public Optional<Employee> findByEmail(String email) {
+        lock.readLock().lock();
+        try {
+            long[] ids = emailIndex.get(emailKey(email));
+            return ids == null ? Optional.empty() : Optional.of(read(ids[0]));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Employee findByJPQL(String firstName, String lastName) {
+        lock.readLock().lock();
+        try {
+            long[] ids = nameIndex.get(nameKey(firstName, lastName));
+            return ids == null ? null : read(ids[0]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Employee findByJPQLNamedParams(String firstName, String lastName) {
+        return findByJPQL(firstName, lastName);
+    }
+
+    @Override
+    public <S extends Employee> S save(S entity) {
+        lock.writeLock().lock();
+        try {
+            // like IDENTITY generation, a new entity gets its id assigned in place
+            if (entity.getId() == 0) {
+                entity.setId(++lastId);
+            } else {
+                lastId = Math.max(lastId, entity.getId());
+                unindex(entity.getId());
+            }
+            offsets.put(entity.getId(), records.append(entity));
+            index(entity);
+            if (records.needsCompaction()) {
+                records.compact(offsets);
+            }
+            return entity;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Employee> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            return offsets.containsKey(id) ? Optional.of(read(id)) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        lock.readLock().lock();
+        try {
+            return offsets.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Employee> findAll() {
+        lock.readLock().lock();
+        try {
+            List<Employee> employees = new ArrayList<>(offsets.size());
+            for (long id : offsets.sortedKeys()) {
+                employees.add(read(id));
+            }
+            return employees;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Employee> findAll(Sort sort) {
+        List<Employee> employees = findAll();
+        Comparator<Employee> comparator = comparator(sort);
+        if (comparator != null) {
+            employees.sort(comparator);
+        }
+        return employees;
+    }
+
+    // no ordered indexes here, so this is a pass over every employee
+    @Override
+    public List<Employee> search(EmployeeCriteria criteria) {
+        List<Employee> employees = new ArrayList<>(findAll().stream()
+                .filter(employee -> criteria.getEmailDomain() == null || (employee.getEmail() != null
+                        && criteria.getEmailDomain().equals(EmployeeCount.emailDomain(employee.getEmail()))))
+                .filter(employee -> criteria.getNamePrefix() == null || (employee.getLastName() != null
+                        && employee.getLastName().regionMatches(true, 0, criteria.getNamePrefix(), 0, criteria.getNamePrefix().length())))
+                .toList());
+        employees.sort(comparator(criteria.getSort()));
+        return employees;
+    }
+
+    @Override
+    public Page<Employee> findAll(Pageable pageable) {
+        List<Employee> employees = findAll(pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(employees);
+        }
+        int from = (int) Math.min(pageable.getOffset(), employees.size());
+        int to = Math.min(from + pageable.getPageSize(), employees.size());
+        return new PageImpl<>(employees.subList(from, to), pageable, employees.size());
+    }
+
+    @Override
+    public List<Employee> findAllById(Iterable<Long> ids) {
+        lock.readLock().lock();
+        try {
+            List<Employee> employees = new ArrayList<>();
+            for (Long id : ids) {
+                if (offsets.containsKey(id)) {
+                    employees.add(read(id));
+                }
+            }
+            return employees;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return offsets.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        lock.writeLock().lock();
+        try {
+            unindex(id);
+            offsets.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<EmployeeCount> countByEmailDomain() {
+        return countBy(employee -> EmployeeCount.emailDomain(employee.getEmail()));
+    }
+
+    @Override
+    public List<EmployeeCount> countByLastNameInitial() {
+        return countBy(employee -> EmployeeCount.lastNameInitial(employee.getLastName()));
+    }
+
+    // deletes are immediate here, there is never anything to archive
+    @Override
+    public int archiveDeleted(int batchSize) {
+        return 0;
+    }
+
+    @Override
+    public void deleteAll() {
+        lock.writeLock().lock();
+        try {
+            offsets.clear();
+            records.clear();
+            emailIndex.clear();
+            nameIndex.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (snapshotPath != null) {
+            snapshot(snapshotPath);
+        }
+    }
+
+    /** Writes all employees to {@code path}, replacing it atomically. */
+    public void snapshot(Path path) {
+        lock.readLock().lock();
+        try {
+            Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeLong(lastId);
+                out.writeInt(offsets.size());
+                for (long id : offsets.sortedKeys()) {
+                    Employee employee = read(id);
+                    out.writeLong(employee.getId());
+                    writeString(out, employee.getFirstName());
+                    writeString(out, employee.getLastName());
+                    writeString(out, employee.getEmail());
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write employee snapshot to " + path, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void load(Path path) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not an employee snapshot");
+            }
+            long snapshotLastId = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                save(Employee.builder()
+                        .id(in.readLong())
+                        .firstName(readString(in))
+                        .lastName(readString(in))
+                        .email(readString(in))
+                        .build());
+            }
+            lastId = Math.max(lastId, snapshotLastId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read employee snapshot from " + path, e);
+        }
+    }
+
+    private List<EmployeeCount> countBy(Function<Employee, String> key) {
+        Map<String, Long> counts = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            offsets.forEach((id, offset) -> {
+                counts.merge(key.apply(records.read(offset)), 1L, Long::sum);
+                return offset;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return counts.entrySet().stream().map(entry -> new EmployeeCount(entry.getKey(), entry.getValue())).toList();
+    }
+
+    private Employee read(long id) {
+        return records.read(offsets.get(id));
+    }
+
+    private void index(Employee employee) {
+        add(emailIndex, emailKey(employee.getEmail()), employee.getId());
+        add(nameIndex, nameKey(employee.getFirstName(), employee.getLastName()), employee.getId());
+    }
+
+    private void unindex(long id) {
+        int offset = offsets.get(id);
+        if (offset == LongIntHashMap.MISSING) {
+            return;
+        }
+        Employee previous = records.read(offset);
+        remove(emailIndex, emailKey(previous.getEmail()), id);
+        remove(nameIndex, nameKey(previous.getFirstName(), previous.getLastName()), id);
+        records.release(offset);
+    }
+
+    private static String emailKey(String email) {
+        return email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
+
+    private static String nameKey(String firstName, String lastName) {
+        return (firstName + '\u0000' + lastName).toLowerCase(Locale.ROOT);
+    }
+
+    private static void add(Map<String, long[]> index, String key, long id) {
+        index.merge(key, new long[]{id}, (ids, added) -> {
+            long[] grown = Arrays.copyOf(ids, ids.length + 1);
+            grown[ids.length] = id;
+            return grown;
+        });
+    }
+
+    private static void remove(Map<String, long[]> index, String key, long id) {
+        index.computeIfPresent(key, (k, ids) -> {
+            long[] remaining = Arrays.stream(ids).filter(existing -> existing != id).toArray();
+            return remaining.length == 0 ? null : remaining;
+        });
+    }
+
+    private static Comparator<Employee> comparator(Sort sort) {
+        Comparator<Employee> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Employee> next = switch (order.getProperty()) {
+                case "id" -> Comparator.comparingLong(Employee::getId);
+                case "firstName" -> Comparator.comparing(Employee::getFirstName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+                case "lastName" -> Comparator.comparing(Employee::getLastName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+                case "email" -> Comparator.comparing(Employee::getEmail, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+                default -> throw new IllegalArgumentException("No property '" + order.getProperty() + "' found for type 'Employee'");
+            };
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,157 @@
+package com.rodrigo.starttesting.repository.memory;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing {@code long -> int} map with linear probing. Keys must be positive;
+ * {@code 0} marks an empty slot and {@code -1} a removed one. Not thread-safe.
+ */
+final class LongIntHashMap {
+
+    static final int MISSING = -1;
+
+    private static final long EMPTY = 0L;
+    private static final long REMOVED = -1L;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int used;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2) - 1) << 1;
+        allocate(capacity);
+    }
+
+    int get(long key) {
+        int slot = find(key);
+        return slot < 0 ? MISSING : values[slot];
+    }
+
+    boolean containsKey(long key) {
+        return find(key) >= 0;
+    }
+
+    /** Returns the previous value or {@link #MISSING}. */
+    int put(long key, int value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Key must be positive: " + key);
+        }
+        int existing = find(key);
+        if (existing >= 0) {
+            int previous = values[existing];
+            values[existing] = value;
+            return previous;
+        }
+        if ((used + 1) * 2 > keys.length) {
+            rehash(size * 4 > keys.length ? keys.length * 2 : keys.length);
+        }
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != REMOVED) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == EMPTY) {
+            used++;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        return MISSING;
+    }
+
+    /** Returns the removed value or {@link #MISSING}. */
+    int remove(long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return MISSING;
+        }
+        keys[slot] = REMOVED;
+        size--;
+        return values[slot];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        used = 0;
+    }
+
+    /** Keys in ascending order. */
+    long[] sortedKeys() {
+        long[] result = new long[size];
+        int i = 0;
+        for (long key : keys) {
+            if (key > 0) {
+                result[i++] = key;
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    void forEach(Entry consumer) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] > 0) {
+                values[slot] = consumer.apply(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /** Visits each entry; the returned int replaces the value. */
+    @FunctionalInterface
+    interface Entry {
+        int apply(long key, int value);
+    }
+
+    private int find(long key) {
+        // non-positive keys can never be stored, and would otherwise match EMPTY or REMOVED slots
+        if (key <= 0) {
+            return -1;
+        }
+        int slot = mix(key) & mask;
+        long current;
+        while ((current = keys[slot]) != EMPTY) {
+            if (current == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] > 0) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                size++;
+                used++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        size = 0;
+        used = 0;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,133 @@
+package com.rodrigo.starttesting.repository.memory;
+
+import com.rodrigo.starttesting.model.Employee;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Append-only arena of encoded employees in a direct buffer. Records are
+ * {@code [int length][long id][string firstName][string lastName][string email]},
+ * strings as {@code [int byteLength][utf-8]} with {@code -1} for null.
+ * Replaced and removed records stay behind as garbage until {@link #compact}.
+ * Callers provide the locking; concurrent {@link #read}s are safe as they only
+ * use absolute gets.
+ */
+final class OffHeapRecordStore {
+
+    private ByteBuffer buffer;
+    private int end;
+    private int garbage;
+
+    OffHeapRecordStore(int initialCapacity) {
+        this.buffer = ByteBuffer.allocateDirect(Math.max(1024, initialCapacity));
+    }
+
+    int append(Employee employee) {
+        byte[] firstName = encode(employee.getFirstName());
+        byte[] lastName = encode(employee.getLastName());
+        byte[] email = encode(employee.getEmail());
+        int length = Integer.BYTES + Long.BYTES + length(firstName) + length(lastName) + length(email);
+        ensureCapacity(length);
+        int offset = end;
+        buffer.putInt(offset, length);
+        buffer.putLong(offset + Integer.BYTES, employee.getId());
+        int position = offset + Integer.BYTES + Long.BYTES;
+        position = putString(position, firstName);
+        position = putString(position, lastName);
+        putString(position, email);
+        end += length;
+        return offset;
+    }
+
+    Employee read(int offset) {
+        int position = offset + Integer.BYTES;
+        long id = buffer.getLong(position);
+        position += Long.BYTES;
+        String firstName = getString(position);
+        position += stringLength(position);
+        String lastName = getString(position);
+        position += stringLength(position);
+        String email = getString(position);
+        return Employee.builder().id(id).firstName(firstName).lastName(lastName).email(email).build();
+    }
+
+    void release(int offset) {
+        garbage += buffer.getInt(offset);
+    }
+
+    boolean needsCompaction() {
+        return garbage > 64 * 1024 && garbage > end / 2;
+    }
+
+    /** Copies live records into a fresh buffer, rewriting each offset in {@code index}. */
+    void compact(LongIntHashMap index) {
+        ByteBuffer compacted = ByteBuffer.allocateDirect(Math.max(1024, (end - garbage) * 2));
+        int[] compactedEnd = {0};
+        index.forEach((id, offset) -> {
+            int length = buffer.getInt(offset);
+            compacted.put(compactedEnd[0], buffer, offset, length);
+            int newOffset = compactedEnd[0];
+            compactedEnd[0] += length;
+            return newOffset;
+        });
+        buffer = compacted;
+        end = compactedEnd[0];
+        garbage = 0;
+    }
+
+    void clear() {
+        end = 0;
+        garbage = 0;
+    }
+
+    int usedBytes() {
+        return end;
+    }
+
+    private void ensureCapacity(int length) {
+        if (end + length <= buffer.capacity()) {
+            return;
+        }
+        long required = (long) end + length;
+        int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(required, (long) buffer.capacity() * 2));
+        if (capacity < required) {
+            throw new IllegalStateException("In-memory employee store is full");
+        }
+        ByteBuffer grown = ByteBuffer.allocateDirect(capacity);
+        grown.put(0, buffer, 0, end);
+        buffer = grown;
+    }
+
+    private int putString(int position, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(position, -1);
+            return position + Integer.BYTES;
+        }
+        buffer.putInt(position, bytes.length);
+        buffer.put(position + Integer.BYTES, bytes);
+        return position + Integer.BYTES + bytes.length;
+    }
+
+    private String getString(int position) {
+        int length = buffer.getInt(position);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(position + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int stringLength(int position) {
+        return Integer.BYTES + Math.max(0, buffer.getInt(position));
+    }
+
+    private static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] bytes) {
+        return Integer.BYTES + (bytes == null ? 0 : bytes.length);
+    }
+}
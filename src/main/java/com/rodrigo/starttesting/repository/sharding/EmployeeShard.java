@@ -0,0 +1,182 @@
+package com.rodrigo.starttesting.repository.sharding;
+
+import com.rodrigo.starttesting.model.Employee;
+import com.rodrigo.starttesting.model.EmployeeCount;
+import com.rodrigo.starttesting.repository.EmployeeCriteria;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * One shard's {@code employees} table. Ids handed out by a shard are congruent to
+ * its index modulo the shard count, so an id alone routes back to its shard.
+ * Local sequence values are reserved in blocks from {@code employee_id_blocks},
+ * which keeps them unique across application nodes. Deletes are soft: rows get a
+ * {@code deleted_at} and are hidden until {@link #archiveDeleted(int)} moves them out.
+ */
+public class EmployeeShard {
+
+    static final RowMapper<Employee> EMPLOYEE_ROW_MAPPER = (rs, rowNum) -> Employee.builder()
+            .id(rs.getLong("id"))
+            .firstName(rs.getString("first_name"))
+            .lastName(rs.getString("last_name"))
+            .email(rs.getString("email"))
+            .build();
+
+    private static final String COLUMNS = "id, first_name, last_name, email";
+    private static final String ACTIVE = "deleted_at IS NULL";
+
+    private final int index;
+    private final int shardCount;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int idBlockSize;
+    private long nextLocalId = 1;
+    private long lastLocalId = 0;
+    private volatile String archiveLock;
+
+    public EmployeeShard(int index, int shardCount, DataSource dataSource, int idBlockSize) {
+        this.index = index;
+        this.shardCount = shardCount;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.idBlockSize = idBlockSize;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    synchronized long nextId() {
+        if (nextLocalId > lastLocalId) {
+            long block = transactionTemplate.execute(status -> {
+                Long current = jdbcTemplate.queryForObject(
+                        "SELECT next_block FROM employee_id_blocks WHERE id = 1 FOR UPDATE", Long.class);
+                jdbcTemplate.update("UPDATE employee_id_blocks SET next_block = ? WHERE id = 1", current + 1);
+                return current;
+            });
+            nextLocalId = block * idBlockSize + 1;
+            lastLocalId = (block + 1) * idBlockSize;
+        }
+        return nextLocalId++ * shardCount + index;
+    }
+
+    void insert(Employee employee) {
+        jdbcTemplate.update("INSERT INTO employees (" + COLUMNS + ", email_domain) VALUES (?, ?, ?, ?, ?)",
+                employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail(),
+                EmployeeCount.emailDomain(employee.getEmail()));
+    }
+
+    /** Only updates an active row; a soft-deleted one stays deleted, as behind JPA's {@code @Where}. */
+    boolean update(Employee employee) {
+        return jdbcTemplate.update("UPDATE employees SET first_name = ?, last_name = ?, email = ?, email_domain = ? WHERE id = ? AND " + ACTIVE,
+                employee.getFirstName(), employee.getLastName(), employee.getEmail(),
+                EmployeeCount.emailDomain(employee.getEmail()), employee.getId()) > 0;
+    }
+
+    void delete(long id) {
+        jdbcTemplate.update("UPDATE employees SET deleted_at = CURRENT_TIMESTAMP WHERE id = ? AND " + ACTIVE, id);
+    }
+
+    void deleteAll() {
+        jdbcTemplate.update("UPDATE employees SET deleted_at = CURRENT_TIMESTAMP WHERE " + ACTIVE);
+    }
+
+    int archiveDeleted(int batchSize) {
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM employees WHERE deleted_at IS NOT NULL ORDER BY id LIMIT ? " + archiveLock(), Long.class, batchSize);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+            jdbcTemplate.update("INSERT INTO employees_archive (" + COLUMNS + ", deleted_at, archived_at) SELECT " + COLUMNS
+                    + ", deleted_at, CURRENT_TIMESTAMP FROM employees WHERE id IN (" + placeholders + ")", ids.toArray());
+            return jdbcTemplate.update("DELETE FROM employees WHERE id IN (" + placeholders + ")", ids.toArray());
+        });
+    }
+
+    // rows another node is archiving are skipped where supported (MySQL 8), so nodes take disjoint batches
+    private String archiveLock() {
+        if (archiveLock == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            archiveLock = "MySQL".equals(product) ? "FOR UPDATE SKIP LOCKED" : "FOR UPDATE";
+        }
+        return archiveLock;
+    }
+
+    Optional<Employee> findById(long id) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM employees WHERE id = ? AND " + ACTIVE, EMPLOYEE_ROW_MAPPER, id)
+                .stream().findFirst();
+    }
+
+    List<Employee> findByIds(List<Long> ids) {
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM employees WHERE id IN (" + placeholders + ") AND " + ACTIVE + " ORDER BY id",
+                EMPLOYEE_ROW_MAPPER, ids.toArray());
+    }
+
+    List<Employee> findByEmail(String email) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM employees WHERE email = ? AND " + ACTIVE + " ORDER BY id",
+                EMPLOYEE_ROW_MAPPER, email);
+    }
+
+    List<Employee> findByName(String firstName, String lastName) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM employees WHERE first_name = ? AND last_name = ? AND " + ACTIVE + " ORDER BY id",
+                EMPLOYEE_ROW_MAPPER, firstName, lastName);
+    }
+
+    /** {@code orderBy} must come from a fixed whitelist, it is concatenated into the query. */
+    List<Employee> findAll(String orderBy, long limit) {
+        String sql = "SELECT " + COLUMNS + " FROM employees WHERE " + ACTIVE + " ORDER BY " + orderBy;
+        if (limit >= 0) {
+            return jdbcTemplate.query(sql + " LIMIT ?", EMPLOYEE_ROW_MAPPER, limit);
+        }
+        return jdbcTemplate.query(sql, EMPLOYEE_ROW_MAPPER);
+    }
+
+    /** {@code orderBy} must come from a fixed whitelist, it is concatenated into the query. */
+    List<Employee> search(EmployeeCriteria criteria, String orderBy) {
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM employees WHERE " + ACTIVE);
+        List<Object> args = new ArrayList<>();
+        if (criteria.getEmailDomain() != null) {
+            sql.append(" AND email_domain = ?");
+            args.add(criteria.getEmailDomain());
+        }
+        if (criteria.getNamePrefix() != null) {
+            sql.append(" AND last_name >= ?");
+            args.add(criteria.getNamePrefix());
+            if (criteria.getNamePrefixEnd() != null) {
+                sql.append(" AND last_name < ?");
+                args.add(criteria.getNamePrefixEnd());
+            }
+        }
+        sql.append(" ORDER BY ").append(orderBy);
+        return jdbcTemplate.query(sql.toString(), EMPLOYEE_ROW_MAPPER, args.toArray());
+    }
+
+    /** {@code expression} must be one of the fixed grouping expressions, it is concatenated into the query. */
+    List<EmployeeCount> countBy(String expression) {
+        return jdbcTemplate.query("SELECT " + expression + " AS group_key, COUNT(*) AS total FROM employees WHERE " + ACTIVE + " GROUP BY " + expression,
+                (rs, rowNum) -> new EmployeeCount(rs.getString("group_key"), rs.getLong("total")));
+    }
+
+    long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employees WHERE " + ACTIVE, Long.class);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,346 @@
+package com.rodrigo.starttesting.repository.sharding;
+
+import com.rodrigo.starttesting.deadline.RequestDeadline;
+import com.rodrigo.starttesting.model.Employee;
+import com.rodrigo.starttesting.model.EmployeeCount;
+import com.rodrigo.starttesting.repository.EmployeeCriteria;
+import com.rodrigo.starttesting.repository.EmployeeStore;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * {@link EmployeeStore} spread over N shards.
+ * New employees are placed by a hash of their email and take an id from that shard,
+ * after which {@code id mod N} routes every id-based call to a single shard.
+ * Lookups by email or name and all listings are scattered to every shard in
+ * parallel and merged in order. Each shard has its own executor with a thread per
+ * pooled connection, so a slow shard only queues its own queries. Shard queries
+ * inherit the caller's {@link RequestDeadline}.
+ */
+public class ShardedEmployeeRepository implements EmployeeStore, AutoCloseable {
+
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "firstName", "first_name",
+            "lastName", "last_name",
+            "email", "email");
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private static final String EMAIL_DOMAIN = "LOWER(SUBSTRING(email, LOCATE('@', email) + 1))";
+    private static final String LAST_NAME_INITIAL = "UPPER(SUBSTRING(last_name, 1, 1))";
+
+    private final List<EmployeeShard> shards;
+    private final boolean caseInsensitiveOrder;
+    private final List<ExecutorService> executors;
+
+    /**
+     * @param caseInsensitiveOrder whether the shards sort strings case-insensitively
+     *                             (MySQL's default collations do), so merging matches their order
+     */
+    public ShardedEmployeeRepository(List<EmployeeShard> shards, boolean caseInsensitiveOrder) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = List.copyOf(shards);
+        this.caseInsensitiveOrder = caseInsensitiveOrder;
+        this.executors = this.shards.stream().map(ShardedEmployeeRepository::executorFor).toList();
+    }
+
+    public int shardForId(long id) {
+        return (int) Math.floorMod(id, (long) shards.size());
+    }
+
+    public int shardForEmail(String email) {
+        int hash = email == null ? 0 : email.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), shards.size());
+    }
+
+    @Override
+    public <S extends Employee> S save(S entity) {
+        // like a JPA merge, an id without an active row is saved as a new employee with a new id;
+        // a soft-deleted row keeps its id until it is archived
+        if (entity.getId() == 0 || !shards.get(shardForId(entity.getId())).update(entity)) {
+            EmployeeShard shard = shards.get(shardForEmail(entity.getEmail()));
+            entity.setId(shard.nextId());
+            shard.insert(entity);
+        }
+        return entity;
+    }
+
+    @Override
+    public Optional<Employee> findById(Long id) {
+        return shards.get(shardForId(id)).findById(id);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return findById(id).isPresent();
+    }
+
+    @Override
+    public Optional<Employee> findByEmail(String email) {
+        return first(scatter(shard -> shard.findByEmail(email)));
+    }
+
+    @Override
+    public Employee findByJPQL(String firstName, String lastName) {
+        return first(scatter(shard -> shard.findByName(firstName, lastName))).orElse(null);
+    }
+
+    @Override
+    public Employee findByJPQLNamedParams(String firstName, String lastName) {
+        return findByJPQL(firstName, lastName);
+    }
+
+    @Override
+    public List<Employee> findAll() {
+        return merge(scatter(shard -> shard.findAll("id", -1)), Comparator.comparingLong(Employee::getId), -1);
+    }
+
+    @Override
+    public List<Employee> findAll(Sort sort) {
+        return merge(scatter(shard -> shard.findAll(orderBy(sort), -1)), comparator(sort), -1);
+    }
+
+    @Override
+    public List<Employee> search(EmployeeCriteria criteria) {
+        Sort sort = criteria.getSort();
+        return merge(scatter(shard -> shard.search(criteria, orderBy(sort))), comparator(sort), -1);
+    }
+
+    @Override
+    public Page<Employee> findAll(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            List<Employee> employees = findAll(pageable.getSort());
+            return new PageImpl<>(employees);
+        }
+        // every shard returns its first offset + size rows; the merged top offset + size is exact
+        long limit = pageable.getOffset() + pageable.getPageSize();
+        String orderBy = orderBy(pageable.getSort());
+        List<ShardPage> pages = scatter(shard -> new ShardPage(shard.findAll(orderBy, limit), shard.count()));
+        List<Employee> merged = merge(pages.stream().map(ShardPage::rows).toList(), comparator(pageable.getSort()), limit);
+        long total = pages.stream().mapToLong(ShardPage::count).sum();
+        int from = (int) Math.min(pageable.getOffset(), merged.size());
+        return new PageImpl<>(merged.subList(from, merged.size()), pageable, total);
+    }
+
+    @Override
+    public List<Employee> findAllById(Iterable<Long> ids) {
+        Map<Integer, List<Long>> idsByShard = new TreeMap<>();
+        for (Long id : ids) {
+            idsByShard.computeIfAbsent(shardForId(id), shard -> new ArrayList<>()).add(id);
+        }
+        List<CompletableFuture<List<Employee>>> futures = idsByShard.entrySet().stream()
+                .map(entry -> async(entry.getKey(), () -> shards.get(entry.getKey()).findByIds(entry.getValue())))
+                .toList();
+        return merge(join(futures), Comparator.comparingLong(Employee::getId), -1);
+    }
+
+    @Override
+    public long count() {
+        return scatter(EmployeeShard::count).stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public List<EmployeeCount> countByEmailDomain() {
+        return sumCounts(scatter(shard -> shard.countBy(EMAIL_DOMAIN)));
+    }
+
+    @Override
+    public List<EmployeeCount> countByLastNameInitial() {
+        return sumCounts(scatter(shard -> shard.countBy(LAST_NAME_INITIAL)));
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        shards.get(shardForId(id)).delete(id);
+    }
+
+    /** Archives up to {@code batchSize} employees on each shard. */
+    @Override
+    public int archiveDeleted(int batchSize) {
+        return scatter(shard -> shard.archiveDeleted(batchSize)).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    @Override
+    public void deleteAll() {
+        scatter(shard -> {
+            shard.deleteAll();
+            return null;
+        });
+    }
+
+    @Override
+    public void close() {
+        executors.forEach(ExecutorService::shutdownNow);
+        for (EmployeeShard shard : shards) {
+            DataSource dataSource = shard.getDataSource();
+            if (dataSource instanceof DelegatingDataSource delegating) {
+                dataSource = delegating.getTargetDataSource();
+            }
+            if (dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    // shutting down anyway
+                }
+            }
+        }
+    }
+
+    private <T> List<T> scatter(Function<EmployeeShard, T> query) {
+        return join(shards.stream()
+                .map(shard -> async(shard.getIndex(), () -> query.apply(shard)))
+                .toList());
+    }
+
+    private <T> CompletableFuture<T> async(int shard, Supplier<T> query) {
+        RequestDeadline deadline = RequestDeadline.current();
+        return CompletableFuture.supplyAsync(() -> {
+            RequestDeadline.set(deadline);
+            try {
+                return query.get();
+            } finally {
+                RequestDeadline.clear();
+            }
+        }, executors.get(shard));
+    }
+
+    // more threads than pooled connections would only wait inside the pool
+    private static ExecutorService executorFor(EmployeeShard shard) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("employee-shard-" + shard.getIndex() + "-");
+        threadFactory.setDaemon(true);
+        return Executors.newFixedThreadPool(poolSize(shard.getDataSource()), threadFactory);
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                int size = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+                return size > 0 ? size : DEFAULT_POOL_SIZE;
+            }
+        } catch (SQLException e) {
+            // fall through to the default
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+
+    private static <T> List<T> join(List<CompletableFuture<T>> futures) {
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static List<EmployeeCount> sumCounts(List<List<EmployeeCount>> results) {
+        Map<String, Long> totals = new TreeMap<>();
+        results.forEach(counts -> counts.forEach(count -> totals.merge(count.getKey(), count.getCount(), Long::sum)));
+        return totals.entrySet().stream().map(entry -> new EmployeeCount(entry.getKey(), entry.getValue())).toList();
+    }
+
+    private static Optional<Employee> first(List<List<Employee>> results) {
+        return results.stream()
+                .flatMap(List::stream)
+                .min(Comparator.comparingLong(Employee::getId));
+    }
+
+    /** K-way merge of per-shard lists that are each sorted by {@code comparator}. */
+    static List<Employee> merge(List<List<Employee>> sorted, Comparator<Employee> comparator, long limit) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, sorted.size()),
+                (a, b) -> comparator.compare(sorted.get(a[0]).get(a[1]), sorted.get(b[0]).get(b[1])));
+        int total = 0;
+        for (int i = 0; i < sorted.size(); i++) {
+            total += sorted.get(i).size();
+            if (!sorted.get(i).isEmpty()) {
+                heads.add(new int[]{i, 0});
+            }
+        }
+        int size = limit < 0 ? total : (int) Math.min(total, limit);
+        List<Employee> merged = new ArrayList<>(size);
+        while (merged.size() < size) {
+            int[] head = heads.poll();
+            List<Employee> list = sorted.get(head[0]);
+            merged.add(list.get(head[1]));
+            if (++head[1] < list.size()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    private static String orderBy(Sort sort) {
+        List<String> columns = new ArrayList<>();
+        boolean hasId = false;
+        for (Sort.Order order : sort) {
+            String column = column(order.getProperty());
+            hasId |= "id".equals(column);
+            columns.add(column + (order.isDescending() ? " DESC" : " ASC"));
+        }
+        if (!hasId) {
+            columns.add("id ASC");
+        }
+        return String.join(", ", columns);
+    }
+
+    private Comparator<Employee> comparator(Sort sort) {
+        Comparator<Employee> comparator = null;
+        boolean hasId = false;
+        for (Sort.Order order : sort) {
+            String column = column(order.getProperty());
+            hasId |= "id".equals(column);
+            Comparator<String> strings = caseInsensitiveOrder ? String.CASE_INSENSITIVE_ORDER : Comparator.naturalOrder();
+            Comparator<Employee> next = switch (column) {
+                case "id" -> Comparator.comparingLong(Employee::getId);
+                case "first_name" -> Comparator.comparing(Employee::getFirstName, strings);
+                case "last_name" -> Comparator.comparing(Employee::getLastName, strings);
+                default -> Comparator.comparing(Employee::getEmail, strings);
+            };
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Comparator<Employee> byId = Comparator.comparingLong(Employee::getId);
+        if (comparator == null) {
+            return byId;
+        }
+        return hasId ? comparator : comparator.thenComparing(byId);
+    }
+
+    private static String column(String property) {
+        String column = SORT_COLUMNS.get(property);
+        if (column == null) {
+            throw new IllegalArgumentException("No property '" + property + "' found for type 'Employee'");
+        }
+        return column;
+    }
+
+    private record ShardPage(List<Employee> rows, long count) {
+    }
+}
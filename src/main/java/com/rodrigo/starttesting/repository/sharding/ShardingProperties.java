@@ -0,0 +1,34 @@
+package com.rodrigo.starttesting.repository.sharding;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties("employees.sharding")
+public class ShardingProperties {
+
+    /**
+     * Shard datasources. The number of shards is part of every id, so it cannot
+     * change without rewriting the data.
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    /** Selects {@code classpath:sharding/schema-<platform>.sql}. */
+    private String platform = "h2";
+
+    /** Ids reserved per round trip to a shard's id block table. */
+    private int idBlockSize = 1000;
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -1,6 +1,7 @@
 package com.rodrigo.starttesting.service;
 
 import com.rodrigo.starttesting.model.Employee;
+import com.rodrigo.starttesting.repository.EmployeeCriteria;
 
 import java.util.List;
 import java.util.Optional;
@@ -10,6 +11,8 @@ public interface EmployeeService {
     Employee saveEmployee(Employee employee);
     List<Employee> getAllEmployees();
 
+    List<Employee> searchEmployees(EmployeeCriteria criteria);
+
     Optional<Employee> getEmployeeById(long id);
 
     Employee updateEmployee(Employee updatedEmployee);
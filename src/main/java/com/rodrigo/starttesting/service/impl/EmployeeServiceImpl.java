@@ -1,50 +1,85 @@
 package com.rodrigo.starttesting.service.impl;
 
+import com.rodrigo.starttesting.deadline.RequestDeadline;
+import com.rodrigo.starttesting.event.EmployeeChangeEvent;
 import com.rodrigo.starttesting.exception.ResourceNotFoundException;
 import com.rodrigo.starttesting.model.Employee;
-import com.rodrigo.starttesting.repository.EmployeeRepository;
+import com.rodrigo.starttesting.repository.EmployeeCriteria;
+import com.rodrigo.starttesting.repository.EmployeeStore;
 import com.rodrigo.starttesting.service.EmployeeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
-    EmployeeRepository employeeRepository;
+    EmployeeStore employeeRepository;
+    ApplicationEventPublisher eventPublisher;
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+    public EmployeeServiceImpl(EmployeeStore employeeRepository, ApplicationEventPublisher eventPublisher) {
         this.employeeRepository = employeeRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional
     public Employee saveEmployee(Employee employee) {
+        RequestDeadline.check();
         Optional<Employee> savedEmployee = employeeRepository.findByEmail(employee.getEmail());
         if(savedEmployee.isPresent()) {
             throw new ResourceNotFoundException("Employee with email: " + employee.getEmail() + " already exists");
         }
-        return employeeRepository.save(employee);
+        Employee created = employeeRepository.save(employee);
+        eventPublisher.publishEvent(EmployeeChangeEvent.created(created));
+        return created;
     }
 
     @Override
     public List<Employee> getAllEmployees() {
+        RequestDeadline.check();
         return employeeRepository.findAll();
     }
 
+    @Override
+    public List<Employee> searchEmployees(EmployeeCriteria criteria) {
+        RequestDeadline.check();
+        return employeeRepository.search(criteria);
+    }
+
     @Override
     public Optional<Employee> getEmployeeById(long id) {
+        RequestDeadline.check();
         return employeeRepository.findById(id);
     }
 
     @Override
+    @Transactional
     public Employee updateEmployee(Employee updatedEmployee) {
-        return employeeRepository.save(updatedEmployee);
+        RequestDeadline.check();
+        // snapshot before save, which merges onto the managed instance
+        Employee previous = employeeRepository.findById(updatedEmployee.getId())
+                .map(EmployeeChangeEvent::snapshot)
+                .orElse(null);
+        Employee updated = employeeRepository.save(updatedEmployee);
+        eventPublisher.publishEvent(EmployeeChangeEvent.updated(previous, updated));
+        return updated;
     }
 
     @Override
+    @Transactional
     public void deleteEmployee(long id) {
+        RequestDeadline.check();
+        // deleteById loads the entity first, so within this transaction the lookup adds no query
+        Employee previous = employeeRepository.findById(id).orElse(null);
+        if (previous == null) {
+            return;
+        }
         employeeRepository.deleteById(id);
+        eventPublisher.publishEvent(EmployeeChangeEvent.deleted(id, previous));
     }
 
 
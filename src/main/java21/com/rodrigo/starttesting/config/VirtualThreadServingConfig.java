@@ -0,0 +1,59 @@
+package com.rodrigo.starttesting.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves requests on virtual threads when built with the {@code virtual-threads}
+ * profile and started with {@code employees.serving.mode=virtual}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "employees.serving.mode", havingValue = "virtual")
+public class VirtualThreadServingConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // the pool may already be wrapped, e.g. by the DeadlineDataSource
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+                    try {
+                        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                            HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+                            // the pool size is still unset (-1) until Hikari validates its config on first use
+                            int maxConnections = hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+                            return new ConnectionLimitingDataSource(dataSource, maxConnections, hikari.getConnectionTimeout());
+                        }
+                    } catch (SQLException e) {
+                        throw new IllegalStateException("Unable to unwrap data source " + beanName, e);
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+}
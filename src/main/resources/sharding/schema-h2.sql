@@ -0,0 +1,29 @@
+CREATE TABLE IF NOT EXISTS employees (
+    id BIGINT NOT NULL PRIMARY KEY,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    deleted_at TIMESTAMP NULL,
+    email_domain VARCHAR(255) NULL
+);
+CREATE INDEX IF NOT EXISTS idx_employees_email ON employees (email);
+CREATE INDEX IF NOT EXISTS idx_employees_name ON employees (first_name, last_name);
+CREATE INDEX IF NOT EXISTS idx_employees_active_id ON employees (deleted_at, id);
+CREATE INDEX IF NOT EXISTS idx_employees_active_last_name ON employees (deleted_at, last_name, id);
+CREATE INDEX IF NOT EXISTS idx_employees_active_domain ON employees (deleted_at, email_domain, last_name, id);
+
+CREATE TABLE IF NOT EXISTS employees_archive (
+    id BIGINT NOT NULL PRIMARY KEY,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    deleted_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS employee_id_blocks (
+    id INT NOT NULL PRIMARY KEY,
+    next_block BIGINT NOT NULL
+);
+INSERT INTO employee_id_blocks (id, next_block)
+    SELECT 1, 0 WHERE NOT EXISTS (SELECT 1 FROM employee_id_blocks WHERE id = 1);
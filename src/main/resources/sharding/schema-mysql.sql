@@ -0,0 +1,28 @@
+CREATE TABLE IF NOT EXISTS employees (
+    id BIGINT NOT NULL PRIMARY KEY,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    deleted_at DATETIME(6) NULL,
+    email_domain VARCHAR(255) NULL,
+    INDEX idx_employees_email (email),
+    INDEX idx_employees_name (first_name, last_name),
+    INDEX idx_employees_active_id (deleted_at, id),
+    INDEX idx_employees_active_last_name (deleted_at, last_name, id),
+    INDEX idx_employees_active_domain (deleted_at, email_domain, last_name, id)
+);
+
+CREATE TABLE IF NOT EXISTS employees_archive (
+    id BIGINT NOT NULL PRIMARY KEY,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    deleted_at DATETIME(6) NOT NULL,
+    archived_at DATETIME(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS employee_id_blocks (
+    id INT NOT NULL PRIMARY KEY,
+    next_block BIGINT NOT NULL
+);
+INSERT IGNORE INTO employee_id_blocks (id, next_block) VALUES (1, 0);
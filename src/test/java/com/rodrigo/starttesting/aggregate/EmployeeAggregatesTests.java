@@ -0,0 +1,111 @@
+package com.rodrigo.starttesting.aggregate;
+
+import com.rodrigo.starttesting.event.EmployeeChangeEvent;
+import com.rodrigo.starttesting.model.Employee;
+import com.rodrigo.starttesting.model.EmployeeCount;
+import com.rodrigo.starttesting.repository.EmployeeStore;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeAggregatesTests {
+
+    @Mock
+    private EmployeeStore employeeRepository;
+
+    @InjectMocks
+    private EmployeeAggregates employeeAggregates;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        employee = Employee.builder().id(1L).firstName("Rodrigo").lastName("Chavez").email("rodrigo@gmail.com").build();
+    }
+
+    @DisplayName("Count created Employees")
+    @Test
+    public void givenCreatedEmployees_whenGetCounts_thenCountEach() {
+        //given - precondition or setup
+        Employee employee2 = Employee.builder().id(2L).firstName("John").lastName("Doe").email("john@Gmail.com").build();
+        //when - action to test
+        employeeAggregates.onEmployeeChange(EmployeeChangeEvent.created(employee));
+        employeeAggregates.onEmployeeChange(EmployeeChangeEvent.created(employee2));
+        //then - verify the output
+        Assertions.assertThat(employeeAggregates.total()).isEqualTo(2);
+        Assertions.assertThat(employeeAggregates.countsByEmailDomain()).isEqualTo(Map.of("gmail.com", 2L));
+        Assertions.assertThat(employeeAggregates.countsByLastNameInitial()).isEqualTo(Map.of("C", 1L, "D", 1L));
+    }
+
+    @DisplayName("Move counts on update")
+    @Test
+    public void givenUpdatedEmployee_whenGetCounts_thenMoveCount() {
+        //given - precondition or setup
+        employeeAggregates.onEmployeeChange(EmployeeChangeEvent.created(employee));
+        Employee updated = Employee.builder().id(1L).firstName("Rodrigo").lastName("Alvarez").email("rodrigo@example.com").build();
+        //when - action to test
+        employeeAggregates.onEmployeeChange(EmployeeChangeEvent.updated(employee, updated));
+        //then - verify the output
+        Assertions.assertThat(employeeAggregates.total()).isEqualTo(1);
+        Assertions.assertThat(employeeAggregates.countsByEmailDomain()).isEqualTo(Map.of("example.com", 1L));
+        Assertions.assertThat(employeeAggregates.countsByLastNameInitial()).isEqualTo(Map.of("A", 1L));
+    }
+
+    @DisplayName("Remove counts on delete")
+    @Test
+    public void givenDeletedEmployee_whenGetCounts_thenRemoveCount() {
+        //given - precondition or setup
+        employeeAggregates.onEmployeeChange(EmployeeChangeEvent.created(employee));
+        //when - action to test
+        employeeAggregates.onEmployeeChange(EmployeeChangeEvent.deleted(employee.getId(), employee));
+        employeeAggregates.onEmployeeChange(EmployeeChangeEvent.deleted(100L, null));
+        //then - verify the output
+        Assertions.assertThat(employeeAggregates.total()).isEqualTo(0);
+        Assertions.assertThat(employeeAggregates.countsByEmailDomain()).isEmpty();
+    }
+
+    @DisplayName("Reconcile from repository")
+    @Test
+    public void givenDriftedCounts_whenReconcile_thenReplaceWithRepositoryCounts() {
+        //given - precondition or setup
+        employeeAggregates.onEmployeeChange(EmployeeChangeEvent.created(employee));
+        BDDMockito.given(employeeRepository.countByEmailDomain())
+                .willReturn(List.of(new EmployeeCount("gmail.com", 3L), new EmployeeCount("example.com", 2L)));
+        BDDMockito.given(employeeRepository.countByLastNameInitial())
+                .willReturn(List.of(new EmployeeCount("D", 5L)));
+        //when - action to test
+        employeeAggregates.reconcile();
+        //then - verify the output
+        Assertions.assertThat(employeeAggregates.total()).isEqualTo(5);
+        Assertions.assertThat(employeeAggregates.countsByEmailDomain()).isEqualTo(Map.of("gmail.com", 3L, "example.com", 2L));
+        Assertions.assertThat(employeeAggregates.countsByLastNameInitial()).isEqualTo(Map.of("D", 5L));
+    }
+
+    @DisplayName("Keep changes made while reconciling")
+    @Test
+    public void givenChangeDuringReconcile_whenReconcile_thenCountChange() {
+        //given - precondition or setup
+        BDDMockito.given(employeeRepository.countByEmailDomain()).willAnswer(invocation -> {
+            employeeAggregates.onEmployeeChange(EmployeeChangeEvent.created(employee));
+            return List.of(new EmployeeCount("example.com", 2L));
+        });
+        BDDMockito.given(employeeRepository.countByLastNameInitial())
+                .willReturn(List.of(new EmployeeCount("D", 2L)));
+        //when - action to test
+        employeeAggregates.reconcile();
+        //then - verify the output
+        Assertions.assertThat(employeeAggregates.total()).isEqualTo(3);
+        Assertions.assertThat(employeeAggregates.countsByEmailDomain()).isEqualTo(Map.of("gmail.com", 1L, "example.com", 2L));
+        Assertions.assertThat(employeeAggregates.countsByLastNameInitial()).isEqualTo(Map.of("C", 1L, "D", 2L));
+    }
+}
@@ -0,0 +1,52 @@
+package com.rodrigo.starttesting.archive;
+
+import com.rodrigo.starttesting.repository.EmployeeStore;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeArchiverTests {
+
+    @Mock
+    private EmployeeStore employeeRepository;
+
+    private EmployeeArchiver employeeArchiver;
+
+    @BeforeEach
+    public void setup() {
+        employeeArchiver = new EmployeeArchiver(employeeRepository, 100);
+    }
+
+    @DisplayName("Archive in batches until none are left")
+    @Test
+    public void givenDeletedEmployees_whenArchive_thenRepeatBatches() {
+        //given - precondition or setup
+        BDDMockito.given(employeeRepository.archiveDeleted(100)).willReturn(100, 100, 42, 0);
+        //when - action to test
+        long archived = employeeArchiver.archive();
+        //then - verify the output
+        Assertions.assertThat(archived).isEqualTo(242);
+        verify(employeeRepository, times(4)).archiveDeleted(100);
+    }
+
+    @DisplayName("Archive nothing")
+    @Test
+    public void givenNoDeletedEmployees_whenArchive_thenSingleBatch() {
+        //given - precondition or setup
+        BDDMockito.given(employeeRepository.archiveDeleted(100)).willReturn(0);
+        //when - action to test
+        long archived = employeeArchiver.archive();
+        //then - verify the output
+        Assertions.assertThat(archived).isZero();
+        verify(employeeRepository, times(1)).archiveDeleted(100);
+    }
+}
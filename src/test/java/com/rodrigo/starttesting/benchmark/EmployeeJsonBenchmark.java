@@ -0,0 +1,90 @@
+package com.rodrigo.starttesting.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.rodrigo.starttesting.json.EmployeeJsonModule;
+import com.rodrigo.starttesting.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reflective bean (de)serialization against {@link EmployeeJsonModule}, for one employee and a
+ * 10k list. After {@code mvn test-compile}:
+ * <pre>
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) com.rodrigo.starttesting.benchmark.EmployeeJsonBenchmark
+ * </pre>
+ * where {@code cp.txt} comes from {@code mvn dependency:build-classpath -Dmdep.outputFile=cp.txt}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeJsonBenchmark {
+
+    @Param({"default", "module"})
+    private String mapper;
+
+    @Param({"1", "10000"})
+    private int size;
+
+    private Object payload;
+    private byte[] json;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+
+    @Setup
+    public void setup() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        if ("module".equals(mapper)) {
+            objectMapper.registerModule(new EmployeeJsonModule());
+        }
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            employees.add(Employee.builder().id(i).firstName("First" + i).lastName("Last" + i).email("employee" + i + "@example.com").build());
+        }
+        payload = size == 1 ? employees.get(0) : employees;
+        JavaType type = size == 1
+                ? objectMapper.constructType(Employee.class)
+                : objectMapper.getTypeFactory().constructCollectionType(List.class, Employee.class);
+        writer = objectMapper.writerFor(type);
+        reader = objectMapper.readerFor(type);
+        json = writer.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public OutputStream serialize() throws Exception {
+        // writeValue closes the stream it is given
+        OutputStream out = OutputStream.nullOutputStream();
+        writer.writeValue(out, payload);
+        return out;
+    }
+
+    @Benchmark
+    public Object deserialize() throws Exception {
+        return reader.readValue(json);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(EmployeeJsonBenchmark.class.getName()).build()).run();
+    }
+}
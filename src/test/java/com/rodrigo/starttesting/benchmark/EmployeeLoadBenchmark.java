@@ -0,0 +1,73 @@
+package com.rodrigo.starttesting.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Open-connection load generator for comparing serving modes.
+ * Start the app in each mode, then run:
+ * <pre>
+ * java -cp target/test-classes com.rodrigo.starttesting.benchmark.EmployeeLoadBenchmark http://localhost:8080 10000 30
+ * </pre>
+ * Arguments: base url, concurrent in-flight requests, duration in seconds.
+ */
+public class EmployeeLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+        HttpResponse<String> created = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/employees"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"firstName\":\"Load\",\"lastName\":\"Test\",\"email\":\"load-" + System.nanoTime() + "@test.com\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        String id = created.body().replaceAll(".*\"id\":(\\d+).*", "$1");
+        HttpRequest get = HttpRequest.newBuilder(URI.create(baseUrl + "/api/employees/" + id))
+                .timeout(Duration.ofSeconds(60))
+                .build();
+
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicLong ok = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        long end = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        long start = System.nanoTime();
+        while (System.nanoTime() < end) {
+            inFlight.acquire();
+            long sent = System.nanoTime();
+            client.sendAsync(get, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                if (error == null && response.statusCode() == 200) {
+                    ok.incrementAndGet();
+                    latencies.add(System.nanoTime() - sent);
+                } else {
+                    failed.incrementAndGet();
+                }
+                inFlight.release();
+            });
+        }
+        inFlight.acquire(concurrency);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("concurrency=%d duration=%.1fs ok=%d failed=%d throughput=%.0f req/s%n",
+                concurrency, elapsed, ok.get(), failed.get(), ok.get() / elapsed);
+        if (sorted.length > 0) {
+            System.out.printf("latency ms p50=%.1f p99=%.1f max=%.1f%n",
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), sorted[sorted.length - 1] / 1e6);
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+    }
+}
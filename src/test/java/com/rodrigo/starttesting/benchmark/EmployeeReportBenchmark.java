@@ -0,0 +1,65 @@
+package com.rodrigo.starttesting.benchmark;
+
+import com.rodrigo.starttesting.report.EmployeeReportGenerator;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times {@link EmployeeReportGenerator} on an in-memory H2 database for 1, 2, 4, ... threads
+ * up to the pool size. After {@code mvn test-compile}:
+ * <pre>
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) com.rodrigo.starttesting.benchmark.EmployeeReportBenchmark 3000000 8 3
+ * </pre>
+ * Arguments: rows, connection pool size, runs per parallelism. {@code cp.txt} comes from
+ * {@code mvn dependency:build-classpath -Dmdep.outputFile=cp.txt}.
+ */
+public class EmployeeReportBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        long rows = args.length > 0 ? Long.parseLong(args[0]) : 3_000_000;
+        int poolSize = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            dataSource.setJdbcUrl("jdbc:h2:mem:report-benchmark;DB_CLOSE_DELAY=-1");
+            dataSource.setUsername("sa");
+            dataSource.setMaximumPoolSize(poolSize);
+            new ResourceDatabasePopulator(new ClassPathResource("sharding/schema-h2.sql")).execute(dataSource);
+            long seedStart = System.nanoTime();
+            new JdbcTemplate(dataSource).update("INSERT INTO employees (id, first_name, last_name, email) "
+                    + "SELECT X, 'First' || X, 'Last' || MOD(X, 97), 'employee' || X || '@domain' || MOD(X, 13) || '.com' "
+                    + "FROM SYSTEM_RANGE(1, ?)", rows);
+            System.out.printf("seeded %d rows in %d ms, %d cores%n", rows,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart), Runtime.getRuntime().availableProcessors());
+
+            Path directory = Files.createTempDirectory("employee-report-benchmark");
+            Path output = directory.resolve("employees.csv");
+            long rangeSize = Math.max(10_000, rows / (poolSize * 8L));
+            try {
+                for (int parallelism = 1; parallelism <= poolSize; parallelism *= 2) {
+                    EmployeeReportGenerator generator = new EmployeeReportGenerator(dataSource, parallelism, rangeSize);
+                    generator.generate(output);
+                    long[] millis = new long[runs];
+                    for (int i = 0; i < runs; i++) {
+                        long start = System.nanoTime();
+                        generator.generate(output);
+                        millis[i] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                    Arrays.sort(millis);
+                    System.out.printf("parallelism=%d ranges of %d ids: min=%d ms median=%d ms, %d bytes%n",
+                            parallelism, rangeSize, millis[0], millis[runs / 2], Files.size(output));
+                }
+            } finally {
+                Files.deleteIfExists(output);
+                Files.deleteIfExists(directory);
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.rodrigo.starttesting.benchmark;
+
+import com.rodrigo.starttesting.startup.StartupProbe;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares time to the first successful {@code GET /api/employees/{id}} of the plain fat jar
+ * and the AOT + CDS jar. Build with {@code mvn -Paot-cds package} (which also records the
+ * archive through {@link StartupProbe}), then:
+ * <pre>
+ * java -cp target/classes:target/test-classes com.rodrigo.starttesting.benchmark.StartupBenchmark target 5
+ * </pre>
+ */
+public class StartupBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Path target = Path.of(args.length > 0 ? args[0] : "target");
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        report("baseline", StartupProbe.baseline(target), runs);
+        report("aot+cds", StartupProbe.optimized(target, "-XX:SharedArchiveFile=" + StartupProbe.archive(target)), runs);
+    }
+
+    private static void report(String name, List<String> command, int runs) throws Exception {
+        long[] millis = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            millis[i] = StartupProbe.timeToFirstRequest(command);
+        }
+        Arrays.sort(millis);
+        System.out.printf("%-8s runs=%d min=%d ms median=%d ms max=%d ms%n",
+                name, runs, millis[0], millis[runs / 2], millis[runs - 1]);
+    }
+}
@@ -0,0 +1,93 @@
+package com.rodrigo.starttesting.config;
+
+import com.rodrigo.starttesting.deadline.RequestDeadline;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class ConnectionLimitingDataSourceTests {
+
+    @Mock
+    private DataSource targetDataSource;
+
+    @Mock
+    private Connection connection;
+
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    public void setup() {
+        dataSource = new ConnectionLimitingDataSource(targetDataSource, 1, 50);
+    }
+
+    @DisplayName("Limit checked out connections")
+    @Test
+    public void givenNoPermitLeft_whenGetConnection_thenThrowsException() throws SQLException {
+        //given - precondition or setup
+        BDDMockito.given(targetDataSource.getConnection()).willReturn(connection);
+        dataSource.getConnection();
+        //when - action to test
+        org.junit.jupiter.api.Assertions.assertThrows(SQLTimeoutException.class, () -> dataSource.getConnection());
+        //then - verify the output
+        verify(targetDataSource, times(1)).getConnection();
+    }
+
+    @DisplayName("Wait for a permit no longer than the request deadline")
+    @Test
+    public void givenShorterRequestDeadline_whenGetConnection_thenTimesOutAtDeadline() throws SQLException {
+        //given - precondition or setup
+        dataSource = new ConnectionLimitingDataSource(targetDataSource, 1, 10_000);
+        BDDMockito.given(targetDataSource.getConnection()).willReturn(connection);
+        dataSource.getConnection();
+        RequestDeadline.set(RequestDeadline.afterMillis(50));
+        try {
+            //when - action to test
+            long start = System.nanoTime();
+            org.junit.jupiter.api.Assertions.assertThrows(SQLTimeoutException.class, () -> dataSource.getConnection());
+            //then - verify the output
+            Assertions.assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(5));
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    @DisplayName("Release permit on close")
+    @Test
+    public void givenConnection_whenClose_thenReleasePermit() throws SQLException {
+        //given - precondition or setup
+        BDDMockito.given(targetDataSource.getConnection()).willReturn(connection);
+        Connection limited = dataSource.getConnection();
+        //when - action to test
+        limited.close();
+        limited.close();
+        //then - verify the output
+        Assertions.assertThat(dataSource.availablePermits()).isEqualTo(1);
+        verify(connection, times(1)).close();
+    }
+
+    @DisplayName("Release permit on failure")
+    @Test
+    public void givenTargetFailure_whenGetConnection_thenReleasePermit() throws SQLException {
+        //given - precondition or setup
+        BDDMockito.given(targetDataSource.getConnection()).willThrow(new SQLException("down"));
+        //when - action to test
+        org.junit.jupiter.api.Assertions.assertThrows(SQLException.class, () -> dataSource.getConnection());
+        //then - verify the output
+        Assertions.assertThat(dataSource.availablePermits()).isEqualTo(1);
+    }
+}
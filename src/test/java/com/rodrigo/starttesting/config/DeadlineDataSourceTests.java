@@ -0,0 +1,83 @@
+package com.rodrigo.starttesting.config;
+
+import com.rodrigo.starttesting.deadline.RequestDeadline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class DeadlineDataSourceTests {
+
+    @Mock
+    private DataSource targetDataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    private DeadlineDataSource dataSource;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        BDDMockito.given(targetDataSource.getConnection()).willReturn(connection);
+        dataSource = new DeadlineDataSource(targetDataSource);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        RequestDeadline.clear();
+    }
+
+    @DisplayName("Apply remaining budget as query timeout")
+    @Test
+    public void givenDeadline_whenPrepareStatement_thenSetQueryTimeout() throws SQLException {
+        //given - precondition or setup
+        BDDMockito.given(connection.prepareStatement("select 1")).willReturn(statement);
+        RequestDeadline.set(RequestDeadline.afterMillis(2500));
+        //when - action to test
+        dataSource.getConnection().prepareStatement("select 1");
+        //then - verify the output
+        verify(statement).setQueryTimeout(3);
+    }
+
+    @DisplayName("Fail fast once the deadline has passed")
+    @Test
+    public void givenExpiredDeadline_whenPrepareStatement_thenThrowsException() throws SQLException {
+        //given - precondition or setup
+        RequestDeadline.set(RequestDeadline.afterMillis(0));
+        Connection deadlineConnection = dataSource.getConnection();
+        //when - action to test
+        org.junit.jupiter.api.Assertions.assertThrows(SQLTimeoutException.class, () -> deadlineConnection.prepareStatement("select 1"));
+        //then - verify the output
+        verify(connection, never()).prepareStatement(anyString());
+    }
+
+    @DisplayName("Leave statements alone without a deadline")
+    @Test
+    public void givenNoDeadline_whenPrepareStatement_thenNoQueryTimeout() throws SQLException {
+        //given - precondition or setup
+        BDDMockito.given(connection.prepareStatement("select 1")).willReturn(statement);
+        //when - action to test
+        dataSource.getConnection().prepareStatement("select 1");
+        //then - verify the output
+        verify(statement, never()).setQueryTimeout(anyInt());
+    }
+}
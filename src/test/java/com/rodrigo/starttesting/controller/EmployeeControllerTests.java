@@ -1,7 +1,12 @@
 package com.rodrigo.starttesting.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodrigo.starttesting.aggregate.EmployeeAggregates;
+import com.rodrigo.starttesting.deadline.RequestDeadlineInterceptor;
+import com.rodrigo.starttesting.event.EmployeeChangeFeed;
 import com.rodrigo.starttesting.model.Employee;
+import com.rodrigo.starttesting.repository.EmployeeCriteria;
+import com.rodrigo.starttesting.repository.EmployeeQueryPlan;
 import com.rodrigo.starttesting.service.EmployeeService;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.DisplayName;
@@ -11,13 +16,17 @@ import org.mockito.BDDMockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.CannotCreateTransactionException;
 
+import java.sql.SQLTimeoutException;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +42,12 @@ public class EmployeeControllerTests {
     @MockBean
     private EmployeeService employeeService;
 
+    @MockBean
+    private EmployeeChangeFeed employeeChangeFeed;
+
+    @MockBean
+    private EmployeeAggregates employeeAggregates;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -71,6 +86,42 @@ public class EmployeeControllerTests {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(2)));
     }
 
+    @DisplayName("Get Employees filtered and sorted")
+    @Test
+    public void givenFilterAndSort_whenGetAllEmployees_thenSearchEmployees() throws Exception{
+        //given - precondition or setup
+        Employee employee = Employee.builder().firstName("Rodrigo").lastName("Chavez").email("rodrigo@gmail.com").build();
+        BDDMockito.given(employeeService.searchEmployees(any(EmployeeCriteria.class))).willReturn(List.of(employee));
+        //when - action to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                .param("emailDomain", "Gmail.com")
+                .param("namePrefix", "Ch")
+                .param("sort", "lastName,desc"));
+        //then - verify the output
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(1)));
+        verify(employeeService).searchEmployees(ArgumentMatchers.argThat(criteria ->
+                "gmail.com".equals(criteria.getEmailDomain())
+                        && "Ch".equals(criteria.getNamePrefix())
+                        && criteria.getPlan() == EmployeeQueryPlan.EMAIL_DOMAIN_AND_NAME_PREFIX_BY_LAST_NAME
+                        && criteria.getDirection() == Sort.Direction.DESC));
+        verify(employeeService, never()).getAllEmployees();
+    }
+
+    @DisplayName("Get Employees sorted by an unindexed column")
+    @Test
+    public void givenUnindexedSort_whenGetAllEmployees_thenReturnBadRequest() throws Exception{
+        //given - precondition or setup
+        //when - action to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                .param("sort", "email"));
+        //then - verify the output
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        verify(employeeService, never()).searchEmployees(any(EmployeeCriteria.class));
+    }
+
     @DisplayName("Get Employee")
     @Test
     public void givenEmployeeId_whenGetEmployeeById_thenReturnEmployeesObject() throws Exception{
@@ -149,4 +200,46 @@ public class EmployeeControllerTests {
         response.andDo(MockMvcResultHandlers.print())
                 .andExpect(MockMvcResultMatchers.status().isOk());
     }
+
+    @DisplayName("Get All Employees Deadline Passed")
+    @Test
+    public void givenSpentRequestTimeout_whenGetAllEmployees_thenReturnGatewayTimeout() throws Exception{
+        //given - precondition or setup
+        //when - action to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                .header(RequestDeadlineInterceptor.TIMEOUT_HEADER, "0"));
+        //then - verify the output
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isGatewayTimeout());
+        verify(employeeService, never()).getAllEmployees();
+    }
+
+    @DisplayName("Get All Employees Query Timeout")
+    @Test
+    public void givenQueryTimeout_whenGetAllEmployees_thenReturnGatewayTimeout() throws Exception{
+        //given - precondition or setup
+        BDDMockito.given(employeeService.getAllEmployees()).willThrow(new QueryTimeoutException("timed out"));
+        //when - action to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                .header(RequestDeadlineInterceptor.TIMEOUT_HEADER, "200"));
+        //then - verify the output
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isGatewayTimeout());
+    }
+
+    @DisplayName("Create Employee Connection Timeout")
+    @Test
+    public void givenConnectionTimeout_whenCreateEmployee_thenReturnGatewayTimeout() throws Exception{
+        //given - precondition or setup
+        Employee employee = Employee.builder().firstName("Rodrigo").lastName("Chavez").email("rodrigo@gmail.com").build();
+        BDDMockito.given(employeeService.saveEmployee(any(Employee.class))).willThrow(new CannotCreateTransactionException(
+                "Could not open JPA EntityManager for transaction", new SQLTimeoutException("No connection permit available within 0ms")));
+        //when - action to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+        //then - verify the output
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isGatewayTimeout());
+    }
 }
@@ -0,0 +1,173 @@
+package com.rodrigo.starttesting.event;
+
+import com.rodrigo.starttesting.controller.EmployeeController;
+import com.rodrigo.starttesting.model.Employee;
+import com.rodrigo.starttesting.service.EmployeeService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class EmployeeChangeFeedTests {
+
+    private EmployeeChangeFeed employeeChangeFeed;
+
+    private MockMvc mockMvc;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        employeeChangeFeed = new EmployeeChangeFeed(4, 1, 2, 4, 60000, 200);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new EmployeeController(Mockito.mock(EmployeeService.class), employeeChangeFeed))
+                .build();
+        employee = Employee.builder().id(1L).firstName("Rodrigo").lastName("Chavez").email("rodrigo@gmail.com").build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        employeeChangeFeed.shutdown();
+    }
+
+    @DisplayName("Stream changes")
+    @Test
+    public void givenSubscriber_whenEmployeeChanges_thenStreamEvents() throws Exception {
+        //given - precondition or setup
+        MvcResult result = subscribe(null);
+        //when - action to test
+        employeeChangeFeed.publish(EmployeeChangeEvent.created(employee));
+        employeeChangeFeed.publish(EmployeeChangeEvent.deleted(employee.getId(), employee));
+        //then - verify the output
+        String body = awaitContent(result.getResponse(), "event:deleted");
+        Assertions.assertThat(body).contains("event:created", "\"email\":\"rodrigo@gmail.com\"");
+        Assertions.assertThat(body.indexOf("event:created")).isLessThan(body.indexOf("event:deleted"));
+    }
+
+    @DisplayName("Resume from Last-Event-ID")
+    @Test
+    public void givenLastEventId_whenSubscribe_thenReplayMissedEvents() throws Exception {
+        //given - precondition or setup
+        MvcResult first = subscribe(null);
+        employeeChangeFeed.publish(EmployeeChangeEvent.created(employee));
+        String lastEventId = eventIds(awaitContent(first.getResponse(), "event:created"))[0];
+        employeeChangeFeed.publish(EmployeeChangeEvent.updated(employee, employee));
+        //when - action to test
+        MvcResult resumed = subscribe(lastEventId);
+        //then - verify the output
+        String body = awaitContent(resumed.getResponse(), "event:updated");
+        Assertions.assertThat(body).doesNotContain("event:created");
+    }
+
+    @DisplayName("Resume after buffer overrun")
+    @Test
+    public void givenStaleLastEventId_whenSubscribe_thenSendReset() throws Exception {
+        //given - precondition or setup
+        MvcResult first = subscribe(null);
+        employeeChangeFeed.publish(EmployeeChangeEvent.created(employee));
+        String lastEventId = eventIds(awaitContent(first.getResponse(), "event:created"))[0];
+        for (int i = 0; i < 8; i++) {
+            employeeChangeFeed.publish(EmployeeChangeEvent.updated(employee, employee));
+        }
+        //when - action to test
+        MvcResult resumed = subscribe(lastEventId);
+        //then - verify the output
+        awaitContent(resumed.getResponse(), "event:" + EmployeeChangeFeed.RESET_EVENT);
+    }
+
+    @DisplayName("Drop a subscriber that stops reading")
+    @Test
+    public void givenBlockedSubscriber_whenEmployeeChanges_thenOthersStreamAndBlockedIsDropped() throws Exception {
+        //given - precondition or setup
+        CountDownLatch release = new CountDownLatch(1);
+        employeeChangeFeed.subscribe(new SseEmitter(60000L) {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, null);
+        MvcResult result = subscribe(null);
+        try {
+            //when - action to test
+            employeeChangeFeed.publish(EmployeeChangeEvent.created(employee));
+            employeeChangeFeed.publish(EmployeeChangeEvent.updated(employee, employee));
+            //then - verify the output
+            awaitContent(result.getResponse(), "event:updated");
+            long deadline = System.currentTimeMillis() + 5000;
+            while (employeeChangeFeed.subscriberCount() > 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assertions.assertThat(employeeChangeFeed.subscriberCount()).isEqualTo(1);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @DisplayName("Serve many subscribers from a bounded writer pool")
+    @Test
+    public void givenMoreSubscribersThanWriters_whenEmployeeChanges_thenAllStreamOnBoundedPool() throws Exception {
+        //given - precondition or setup
+        int subscribers = 20;
+        CountDownLatch delivered = new CountDownLatch(subscribers);
+        for (int i = 0; i < subscribers; i++) {
+            employeeChangeFeed.subscribe(new SseEmitter(60000L) {
+                @Override
+                public void send(SseEventBuilder builder) {
+                    delivered.countDown();
+                }
+            }, null);
+        }
+        //when - action to test
+        employeeChangeFeed.publish(EmployeeChangeEvent.created(employee));
+        //then - verify the output
+        Assertions.assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        Assertions.assertThat(employeeChangeFeed.subscriberCount()).isEqualTo(subscribers);
+        Assertions.assertThat(employeeChangeFeed.largestWriterPoolSize()).isLessThanOrEqualTo(2);
+    }
+
+    private MvcResult subscribe(String lastEventId) throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/api/employees/changes");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(request)
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String body = response.getContentAsString();
+        while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            body = response.getContentAsString();
+        }
+        Assertions.assertThat(body).contains(expected);
+        return body;
+    }
+
+    private static String[] eventIds(String body) {
+        return body.lines()
+                .filter(line -> line.startsWith("id:"))
+                .map(line -> line.substring(3))
+                .toArray(String[]::new);
+    }
+}
@@ -159,7 +159,7 @@ public class EmployeeControllerIT {
                 .build();
         employeeRepository.save(savedEmployee);
         //when - action to test
-        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees/{id}", 1));
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees/{id}", savedEmployee.getId()));
         //then - verify the output
         response.andDo(MockMvcResultHandlers.print())
                 .andExpect(MockMvcResultMatchers.status().isOk());
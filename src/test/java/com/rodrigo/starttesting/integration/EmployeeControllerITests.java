@@ -3,6 +3,8 @@ package com.rodrigo.starttesting.integration;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rodrigo.starttesting.model.Employee;
 import com.rodrigo.starttesting.repository.EmployeeRepository;
+import com.rodrigo.starttesting.sql.MaxQueries;
+import com.rodrigo.starttesting.sql.QueryCountingConfiguration;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -10,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -20,6 +23,7 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
+@Import(QueryCountingConfiguration.class)
 public class EmployeeControllerITests {
 
     @Autowired
@@ -38,6 +42,7 @@ public class EmployeeControllerITests {
 
     @DisplayName("Create Employee")
     @Test
+    @MaxQueries(select = 1, insert = 1)
     public void givenEmployeeObject_whenCreateEmployee_thenReturnSavedEmployee() throws Exception{
         //given - precondition or setup
         Employee employee = Employee.builder().firstName("Rodrigo").lastName("Chavez").email("rodrigo@gmail.com").build();
@@ -55,6 +60,7 @@ public class EmployeeControllerITests {
 
     @DisplayName("Get All Employees")
     @Test
+    @MaxQueries(select = 1, insert = 2)
     public void givenListOfEmployees_whenGetAllEmployees_thenReturnEmployeesList() throws Exception{
         //given - precondition or setup
         Employee employee1 = Employee.builder().firstName("Rodrigo").lastName("Chavez").email("rodrigo@gmail.com").build();
@@ -72,6 +78,7 @@ public class EmployeeControllerITests {
 
     @DisplayName("Get Employee")
     @Test
+    @MaxQueries(select = 1, insert = 1)
     public void givenEmployeeId_whenGetEmployeeById_thenReturnEmployeesObject() throws Exception{
         //given - precondition or setup
         Employee employee = Employee.builder().firstName("Rodrigo").lastName("Chavez").email("rodrigo@gmail.com").build();
@@ -89,6 +96,7 @@ public class EmployeeControllerITests {
 
     @DisplayName("Get Employee Not Found")
     @Test
+    @MaxQueries(select = 1)
     public void givenInvalidEmployeeId_whenGetEmployeeById_thenReturnNotFound() throws Exception{
         //given - precondition or setup
         //when - action to test
@@ -101,6 +109,7 @@ public class EmployeeControllerITests {
 
     @DisplayName("Update Employee")
     @Test
+    @MaxQueries(select = 1, insert = 1, update = 1)
     public void givenEmployeeObject_whenUpdateEmployee_thenReturnUpdatedEmployee() throws Exception{
         //given - precondition or setup
         Employee employee = Employee.builder().firstName("Rodrigo").lastName("Chavez").email("rodrigo@gmail.com").build();
@@ -120,6 +129,7 @@ public class EmployeeControllerITests {
 
     @DisplayName("Update Employee Not Found")
     @Test
+    @MaxQueries(select = 1)
     public void givenInvalidEmployeeObject_whenUpdateEmployee_thenReturnNotFound() throws Exception {
         //given - precondition or setup
         Employee updated = Employee.builder().firstName("Rodrigo2").lastName("Chavez2").email("rodrigo2@gmail.com").build();
@@ -134,6 +144,7 @@ public class EmployeeControllerITests {
 
     @DisplayName("Delete Employee")
     @Test
+    @MaxQueries(select = 2, insert = 1, update = 1)
     public void givenEmployeeId_whenDeleteEmployee_thenReturnOK() throws Exception{
         //given - precondition or setup
         Employee savedEmployee = Employee.builder()
@@ -143,7 +154,7 @@ public class EmployeeControllerITests {
                 .build();
         employeeRepository.save(savedEmployee);
         //when - action to test
-        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees/{id}", 1));
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees/{id}", savedEmployee.getId()));
         //then - verify the output
         response.andDo(MockMvcResultHandlers.print())
                 .andExpect(MockMvcResultMatchers.status().isOk());
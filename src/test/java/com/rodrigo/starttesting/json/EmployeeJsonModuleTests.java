@@ -0,0 +1,99 @@
+package com.rodrigo.starttesting.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.rodrigo.starttesting.model.Employee;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class EmployeeJsonModuleTests {
+
+    private final ObjectMapper defaultMapper = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final ObjectMapper moduleMapper = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .registerModule(new EmployeeJsonModule());
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        employee = Employee.builder().id(1L).firstName("Rodrigo").lastName("Chávez \"RC\"").email("rodrigo@gmail.com").build();
+    }
+
+    @DisplayName("Serialize Employee like the bean serializer")
+    @Test
+    public void givenEmployees_whenSerialize_thenSameJsonAsDefault() throws Exception {
+        //given - precondition or setup
+        List<Employee> employees = List.of(employee, Employee.builder().id(2L).firstName("John").build());
+        //when - action to test
+        String json = moduleMapper.writeValueAsString(employees);
+        //then - verify the output
+        Assertions.assertThat(json).isEqualTo(defaultMapper.writeValueAsString(employees));
+    }
+
+    @DisplayName("Deserialize Employee")
+    @Test
+    public void givenEmployeeJson_whenDeserialize_thenEmployeeObject() throws Exception {
+        //given - precondition or setup
+        String json = "{\"email\":\"rodrigo@gmail.com\",\"unknown\":{\"nested\":[1,2]},\"id\":\"7\",\"firstName\":\"Rodrigo\",\"lastName\":null}";
+        //when - action to test
+        Employee parsed = moduleMapper.readValue(json, Employee.class);
+        //then - verify the output
+        Assertions.assertThat(parsed).usingRecursiveComparison().isEqualTo(defaultMapper.readValue(json, Employee.class));
+        Assertions.assertThat(parsed.getId()).isEqualTo(7L);
+        Assertions.assertThat(parsed.getEmail()).isEqualTo("rodrigo@gmail.com");
+    }
+
+    @DisplayName("Skip ignored properties like the bean deserializer")
+    @Test
+    public void givenIgnoredProperties_whenDeserializeStrictly_thenSkipThem() throws Exception {
+        //given - precondition or setup
+        ObjectMapper strictDefaultMapper = new ObjectMapper();
+        ObjectMapper strictModuleMapper = new ObjectMapper().registerModule(new EmployeeJsonModule());
+        String json = "{\"id\":7,\"email\":\"rodrigo@gmail.com\",\"deletedAt\":\"2024-01-01T00:00:00Z\",\"emailDomain\":{\"x\":1}}";
+        //when - action to test
+        Employee parsed = strictModuleMapper.readValue(json, Employee.class);
+        //then - verify the output
+        Assertions.assertThat(parsed).usingRecursiveComparison().isEqualTo(strictDefaultMapper.readValue(json, Employee.class));
+        Assertions.assertThat(parsed.getDeletedAt()).isNull();
+        Assertions.assertThatThrownBy(() -> strictModuleMapper.readValue("{\"unknown\":1}", Employee.class))
+                .isInstanceOf(MismatchedInputException.class);
+    }
+
+    @DisplayName("Deserialize non-string names like the bean deserializer")
+    @Test
+    public void givenScalarAndArrayNames_whenDeserialize_thenSameCoercionAsDefault() throws Exception {
+        //given - precondition or setup
+        String scalars = "{\"firstName\":42,\"lastName\":true,\"email\":1.5}";
+        String array = "{\"firstName\":[\"Rodrigo\"]}";
+        //when - action to test
+        Employee parsed = moduleMapper.readValue(scalars, Employee.class);
+        //then - verify the output
+        Assertions.assertThat(parsed).usingRecursiveComparison().isEqualTo(defaultMapper.readValue(scalars, Employee.class));
+        Assertions.assertThat(parsed.getFirstName()).isEqualTo("42");
+        Assertions.assertThatThrownBy(() -> defaultMapper.readValue(array, Employee.class))
+                .isInstanceOf(MismatchedInputException.class);
+        Assertions.assertThatThrownBy(() -> moduleMapper.readValue(array, Employee.class))
+                .isInstanceOf(MismatchedInputException.class);
+    }
+
+    @DisplayName("Round trip Employee list")
+    @Test
+    public void givenEmployeeList_whenRoundTrip_thenSameEmployees() throws Exception {
+        //given - precondition or setup
+        List<Employee> employees = List.of(employee, Employee.builder().id(2L).firstName("John").lastName("Doe").build());
+        //when - action to test
+        List<Employee> parsed = moduleMapper.readValue(moduleMapper.writeValueAsBytes(employees), new TypeReference<>() {
+        });
+        //then - verify the output
+        Assertions.assertThat(parsed).usingRecursiveFieldByFieldElementComparator().isEqualTo(employees);
+    }
+}
@@ -0,0 +1,135 @@
+package com.rodrigo.starttesting.report;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class EmployeeReportGeneratorTest {
+
+    @TempDir
+    Path directory;
+
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        dataSource = DataSourceBuilder.create()
+                .url("jdbc:h2:mem:report-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1")
+                .username("sa")
+                .password("")
+                .build();
+        new ResourceDatabasePopulator(new ClassPathResource("sharding/schema-h2.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @DisplayName("Report every active Employee in id order")
+    @Test
+    public void givenEmployees_whenGenerate_thenSortedRowsAndTotals() throws Exception {
+        //given - precondition or setup
+        // sparse ids, so some ranges are empty
+        jdbcTemplate.update("INSERT INTO employees (id, first_name, last_name, email) "
+                + "SELECT X * 7, 'First' || X, 'Last' || MOD(X, 3), 'employee' || X || CASE WHEN MOD(X, 2) = 0 THEN '@gmail.com' ELSE '@example.com' END "
+                + "FROM SYSTEM_RANGE(1, 1000)");
+        jdbcTemplate.update("INSERT INTO employees (id, first_name, last_name, email) VALUES (7001, 'Jane, Jr.', 'O\"Neil', 'jane@Gmail.com')");
+        jdbcTemplate.update("UPDATE employees SET deleted_at = CURRENT_TIMESTAMP WHERE id = 14");
+        EmployeeReportGenerator generator = new EmployeeReportGenerator(dataSource, 4, 100);
+        Path output = directory.resolve("employees.csv");
+        //when - action to test
+        EmployeeReportGenerator.ReportTotals totals = generator.generate(output);
+        //then - verify the output
+        List<String> lines = Files.readAllLines(output);
+        List<String> rows = lines.subList(1, 1001);
+        Assertions.assertThat(lines.get(0)).isEqualTo(EmployeeReportGenerator.HEADER);
+        Assertions.assertThat(rows).extracting(line -> Long.parseLong(line.substring(0, line.indexOf(','))))
+                .isSorted()
+                .doesNotContain(14L)
+                .hasSize(1000);
+        Assertions.assertThat(rows.get(0)).isEqualTo("7,First1,Last1,employee1@example.com");
+        Assertions.assertThat(rows.get(999)).isEqualTo("7001,\"Jane, Jr.\",\"O\"\"Neil\",jane@Gmail.com");
+        Assertions.assertThat(totals.getTotal()).isEqualTo(1000);
+        Assertions.assertThat(totals.getByEmailDomain()).isEqualTo(Map.of("gmail.com", 500L, "example.com", 500L));
+        Assertions.assertThat(lines.subList(1001, lines.size()))
+                .startsWith("# total,1000", "# email_domain,example.com,500", "# email_domain,gmail.com,500");
+        try (var files = Files.list(directory)) {
+            Assertions.assertThat(files).containsExactly(output);
+        }
+    }
+
+    @DisplayName("Failed range stops the other ranges before cleaning up")
+    @Test
+    public void givenFailingRange_whenGenerate_thenWorkersStoppedAndNoFilesLeft() throws Exception {
+        //given - precondition or setup
+        // the last range is read first and fails while the others are still being read; @range is
+        // only set on range connections, so the query for the id bounds still succeeds
+        jdbcTemplate.execute("ALTER TABLE employees RENAME TO employee_rows");
+        jdbcTemplate.execute("CREATE VIEW employees AS SELECT id, first_name, last_name, deleted_at, "
+                + "CASE WHEN id = 1000 AND @range = 1 THEN CAST(CAST(email AS INT) AS VARCHAR) ELSE email END AS email "
+                + "FROM employee_rows");
+        jdbcTemplate.update("INSERT INTO employee_rows (id, first_name, last_name, email) "
+                + "SELECT X, 'First' || X, 'Last' || X, 'employee' || X || '@gmail.com' FROM SYSTEM_RANGE(1, 1000)");
+        AtomicInteger connections = new AtomicInteger();
+        AtomicInteger opened = new AtomicInteger();
+        DataSource slow = new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection connection = super.getConnection();
+                if (connections.incrementAndGet() > 1) {
+                    // ignores interrupts, like a query in flight
+                    long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+                    while (System.nanoTime() < until) {
+                        Thread.onSpinWait();
+                    }
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("SET @range = 1");
+                    }
+                }
+                opened.incrementAndGet();
+                return connection;
+            }
+        };
+        EmployeeReportGenerator generator = new EmployeeReportGenerator(slow, 4, 100);
+        Path output = directory.resolve("employees.csv");
+        //when - action to test
+        //then - verify the output
+        Assertions.assertThatThrownBy(() -> generator.generate(output)).isInstanceOf(DataAccessException.class);
+        Assertions.assertThat(opened.get()).as("ranges still starting").isEqualTo(connections.get());
+        try (var files = Files.list(directory)) {
+            Assertions.assertThat(files).isEmpty();
+        }
+    }
+
+    @DisplayName("Report without Employees")
+    @Test
+    public void givenNoEmployees_whenGenerate_thenHeaderAndZeroTotal() throws Exception {
+        //given - precondition or setup
+        EmployeeReportGenerator generator = new EmployeeReportGenerator(dataSource, 2, 100);
+        Path output = directory.resolve("employees.csv");
+        //when - action to test
+        EmployeeReportGenerator.ReportTotals totals = generator.generate(output);
+        //then - verify the output
+        Assertions.assertThat(totals.getTotal()).isZero();
+        Assertions.assertThat(Files.readAllLines(output)).containsExactly(EmployeeReportGenerator.HEADER, "# total,0");
+    }
+}
@@ -0,0 +1,50 @@
+package com.rodrigo.starttesting.repository;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+public class EmailDomainBackfillTest {
+
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        dataSource = DataSourceBuilder.create()
+                .url("jdbc:h2:mem:backfill-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1")
+                .username("sa")
+                .password("")
+                .build();
+        new ResourceDatabasePopulator(new ClassPathResource("sharding/schema-h2.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @DisplayName("Backfill missing email domains in id ranges")
+    @Test
+    public void givenRowsWithoutEmailDomain_whenBackfill_thenEveryRowHasItsDomain() {
+        //given - precondition or setup
+        // sparse ids, so some ranges are empty
+        jdbcTemplate.update("INSERT INTO employees (id, first_name, last_name, email) "
+                + "SELECT X * 7, 'First' || X, 'Last' || X, 'employee' || X || '@Example.com' FROM SYSTEM_RANGE(1, 100)");
+        jdbcTemplate.update("UPDATE employees SET email_domain = 'example.com' WHERE MOD(id, 2) = 0");
+        EmailDomainBackfill backfill = new EmailDomainBackfill(dataSource, 30);
+        //when - action to test
+        int updated = backfill.backfill();
+        int again = backfill.backfill();
+        //then - verify the output
+        Assertions.assertThat(updated).isEqualTo(50);
+        Assertions.assertThat(again).isZero();
+        Assertions.assertThat(jdbcTemplate.queryForList("SELECT DISTINCT email_domain FROM employees", String.class))
+                .containsExactly("example.com");
+    }
+}
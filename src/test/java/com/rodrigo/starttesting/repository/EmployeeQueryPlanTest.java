@@ -0,0 +1,118 @@
+package com.rodrigo.starttesting.repository;
+
+import com.rodrigo.starttesting.exception.UnsupportedQueryException;
+import com.rodrigo.starttesting.model.Employee;
+import com.rodrigo.starttesting.sql.QueryCounter;
+import com.rodrigo.starttesting.sql.QueryCountingConfiguration;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs each {@link EmployeeQueryPlan} through {@link EmployeeRepository#search(EmployeeCriteria)}
+ * and asks H2 to {@code EXPLAIN} the SQL Hibernate actually sent. H2 only skips the sort when the
+ * sort columns lead an index, so that rows come back in index order is checked on the index
+ * definition, the way MySQL reads it: filter columns first, then the sort columns.
+ */
+@DataJpaTest
+@Import(QueryCountingConfiguration.class)
+public class EmployeeQueryPlanTest {
+    private static final Pattern USED_INDEX = Pattern.compile("/\\* PUBLIC\\.(\\w+)");
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        // what ANALYZE would find for the rows below, set up front since DDL commits in H2
+        jdbcTemplate.execute("ALTER TABLE employees ALTER COLUMN deleted_at SELECTIVITY 1");
+        jdbcTemplate.execute("ALTER TABLE employees ALTER COLUMN email_domain SELECTIVITY 5");
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            employees.add(Employee.builder().firstName("First" + i).lastName("Last" + i)
+                    .email("employee" + i + "@example" + (i % 10) + ".com").build());
+        }
+        employeeRepository.saveAllAndFlush(employees);
+    }
+
+    @DisplayName("Every allowed filter and sort combination filters and sorts by index")
+    @Test
+    public void givenEachQueryPlan_whenExplainSearch_thenPlanUsesItsIndex(){
+        for (EmployeeQueryPlan plan : EmployeeQueryPlan.values()) {
+            //given - precondition or setup
+            EmployeeCriteria criteria = EmployeeCriteria.of(plan.filtersByEmailDomain() ? "example3.com" : null,
+                    plan.filtersByNamePrefix() ? "Last1" : null, Sort.by(plan.getSortProperty()));
+            //when - action to test
+            QueryCounter.reset();
+            List<Employee> employees = employeeRepository.search(criteria);
+            String explained = explain(lastSelect());
+            //then - verify the output
+            Assertions.assertThat(criteria.getPlan()).isEqualTo(plan);
+            Assertions.assertThat(employees).isNotEmpty();
+            List<String> filterColumns = plan.filtersByEmailDomain() ? List.of("DELETED_AT", "EMAIL_DOMAIN") : List.of("DELETED_AT");
+            List<String> sortColumns = "id".equals(plan.getSortProperty()) ? List.of("ID") : List.of("LAST_NAME", "ID");
+            Assertions.assertThat(usedIndex(explained)).as(plan.name() + " filters by index")
+                    .isEqualToIgnoringCase(plan.getIndex());
+            List<String> expected = new ArrayList<>(filterColumns);
+            expected.addAll(sortColumns);
+            Assertions.assertThat(indexColumns(plan.getIndex())).as(plan.name() + " sorts by index").isEqualTo(expected);
+        }
+    }
+
+    @DisplayName("Sorting by a column without an index is rejected")
+    @Test
+    public void givenUnindexedSort_whenCreateCriteria_thenThrowsUnsupportedQueryException(){
+        //when - action to test
+        //then - verify the output
+        Assertions.assertThatThrownBy(() -> EmployeeCriteria.of(null, null, Sort.by("email")))
+                .isInstanceOf(UnsupportedQueryException.class);
+        Assertions.assertThatThrownBy(() -> EmployeeCriteria.of("example3.com", null, Sort.by("id")))
+                .isInstanceOf(UnsupportedQueryException.class)
+                .hasMessageContaining("[lastName]");
+        Assertions.assertThatThrownBy(() -> EmployeeCriteria.of(null, null, Sort.by("lastName", "id")))
+                .isInstanceOf(UnsupportedQueryException.class);
+    }
+
+    private static String lastSelect() {
+        List<String> statements = QueryCounter.statements();
+        for (int i = statements.size() - 1; i >= 0; i--) {
+            if (statements.get(i).stripLeading().regionMatches(true, 0, "select", 0, 6)) {
+                return statements.get(i);
+            }
+        }
+        throw new AssertionError("No SELECT executed, got " + statements);
+    }
+
+    private static String usedIndex(String explained) {
+        Matcher matcher = USED_INDEX.matcher(explained);
+        Assertions.assertThat(matcher.find()).as("index in " + explained).isTrue();
+        return matcher.group(1);
+    }
+
+    private List<String> indexColumns(String index) {
+        return jdbcTemplate.queryForList("SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS "
+                + "WHERE INDEX_NAME = ? ORDER BY ORDINAL_POSITION", String.class, index.toUpperCase(Locale.ROOT));
+    }
+
+    // H2 needs every parameter bound to explain a query; the values do not change the index it picks
+    private String explain(String sql) {
+        int parameters = (int) sql.chars().filter(c -> c == '?').count();
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, Collections.nCopies(parameters, "x").toArray());
+    }
+}
@@ -1,21 +1,33 @@
 package com.rodrigo.starttesting.repository;
 
 import com.rodrigo.starttesting.model.Employee;
+import com.rodrigo.starttesting.model.EmployeeArchive;
+import com.rodrigo.starttesting.model.EmployeeCount;
+import com.rodrigo.starttesting.sql.MaxQueries;
+import com.rodrigo.starttesting.sql.QueryCountingConfiguration;
 import org.assertj.core.api.Assertions;
+import org.assertj.core.groups.Tuple;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.Optional;
 
 @DataJpaTest
+@Import(QueryCountingConfiguration.class)
 public class EmployeeRepositoryTest {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private TestEntityManager testEntityManager;
+
     private Employee employee;
 
     @BeforeEach
@@ -25,6 +37,7 @@ public class EmployeeRepositoryTest {
 
     @DisplayName("Save Employee")
     @Test
+    @MaxQueries(insert = 1)
     public void givenEmployeeObject_whenSave_thenReturnSavedEmployee(){
         Employee savedEmployee = employeeRepository.save(employee);
         Assertions.assertThat(savedEmployee).isNotNull();
@@ -33,6 +46,7 @@ public class EmployeeRepositoryTest {
 
     @DisplayName("Get All Employees")
     @Test
+    @MaxQueries(select = 1, insert = 2)
     public void givenEmployeesList_whenFindAll_thenEmployeesList(){
         Employee employee1 = Employee.builder().firstName("Rodrigo").lastName("Chavez").email("rodrigo@gmail.com").build();
         Employee employee2 = Employee.builder().firstName("Rodrigo").lastName("Chavez").email("rodrigo@gmail.com").build();
@@ -45,6 +59,7 @@ public class EmployeeRepositoryTest {
 
     @DisplayName("Get Employee by id")
     @Test
+    @MaxQueries(insert = 1)
     public void givenEmployeeObject_whenFindById_thenReturnEmployeeObject(){
             //given - precondition or setup
         employeeRepository.save(employee);
@@ -56,6 +71,7 @@ public class EmployeeRepositoryTest {
 
     @DisplayName("Get Employee by email")
     @Test
+    @MaxQueries(select = 1, insert = 1)
     public void givenEmployeeEmail_whenFindByEmail_thenReturnEmployeeObject(){
         //given - precondition or setup
         employeeRepository.save(employee);
@@ -67,6 +83,7 @@ public class EmployeeRepositoryTest {
 
     @DisplayName("Update Employee")
     @Test
+    @MaxQueries(insert = 1, update = 1)
     public void givenEmployeeObject_whenUpdateEmployee_thenReturnUpdatedEmployee(){
         //given - precondition or setup
         employeeRepository.save(employee);
@@ -74,7 +91,7 @@ public class EmployeeRepositoryTest {
         Employee savedEmployee = employeeRepository.findById(employee.getId()).get();
         savedEmployee.setEmail("ro@gmail.com");
         savedEmployee.setFirstName("John");
-        Employee updatedEmployee = employeeRepository.save(savedEmployee);
+        Employee updatedEmployee = employeeRepository.saveAndFlush(savedEmployee);
         //then - verify the output
         Assertions.assertThat(updatedEmployee).isNotNull();
         Assertions.assertThat(updatedEmployee.getEmail()).isEqualTo("ro@gmail.com");
@@ -83,11 +100,13 @@ public class EmployeeRepositoryTest {
 
     @DisplayName("Delete Employee")
     @Test
+    @MaxQueries(select = 1, insert = 1, update = 1)
     public void givenEmployeeObject_whenDelete_thenRemoveEmployee(){
         //given - precondition or setup
         employeeRepository.save(employee);
         //when - action to test
         employeeRepository.deleteById(employee.getId());
+        testEntityManager.flush();
         Optional<Employee> employeeOptional = employeeRepository.findById(employee.getId());
         //then - verify the output
         Assertions.assertThat(employeeOptional).isEmpty();
@@ -95,6 +114,7 @@ public class EmployeeRepositoryTest {
 
     @DisplayName("Get Employee by custom query")
     @Test
+    @MaxQueries(select = 1, insert = 1)
     public void givenFirstNameAndLastName_whenFindByJPQL_thenReturnEmployeeObject(){
         //given - precondition or setup
         employeeRepository.save(employee);
@@ -106,6 +126,7 @@ public class EmployeeRepositoryTest {
 
     @DisplayName("Get Employee by custom query named Params")
     @Test
+    @MaxQueries(select = 1, insert = 1)
     public void givenFirstNameAndLastName_whenFindByJPQLNamedParams_thenReturnEmployeeObject(){
         //given - precondition or setup
         employeeRepository.save(employee);
@@ -114,4 +135,125 @@ public class EmployeeRepositoryTest {
         //then - verify the output
         Assertions.assertThat(employeeDB).isNotNull();
     }
+
+    @DisplayName("Count Employees by email domain")
+    @Test
+    @MaxQueries(select = 1, insert = 3)
+    public void givenEmployees_whenCountByEmailDomain_thenReturnCountPerDomain(){
+        //given - precondition or setup
+        employeeRepository.save(employee);
+        employeeRepository.save(Employee.builder().firstName("John").lastName("Doe").email("john@Gmail.com").build());
+        employeeRepository.save(Employee.builder().firstName("Jane").lastName("Doe").email("jane@example.com").build());
+        //when - action to test
+        List<EmployeeCount> counts = employeeRepository.countByEmailDomain();
+        //then - verify the output
+        Assertions.assertThat(counts).extracting(EmployeeCount::getKey, EmployeeCount::getCount)
+                .containsExactlyInAnyOrder(Tuple.tuple("gmail.com", 2L), Tuple.tuple("example.com", 1L));
+    }
+
+    @DisplayName("Count Employees by last name initial")
+    @Test
+    @MaxQueries(select = 1, insert = 3)
+    public void givenEmployees_whenCountByLastNameInitial_thenReturnCountPerInitial(){
+        //given - precondition or setup
+        employeeRepository.save(employee);
+        employeeRepository.save(Employee.builder().firstName("John").lastName("doe").email("john@gmail.com").build());
+        employeeRepository.save(Employee.builder().firstName("Jane").lastName("Doe").email("jane@gmail.com").build());
+        //when - action to test
+        List<EmployeeCount> counts = employeeRepository.countByLastNameInitial();
+        //then - verify the output
+        Assertions.assertThat(counts).extracting(EmployeeCount::getKey, EmployeeCount::getCount)
+                .containsExactlyInAnyOrder(Tuple.tuple("C", 1L), Tuple.tuple("D", 2L));
+    }
+
+    @DisplayName("Soft delete Employee")
+    @Test
+    @MaxQueries(select = 3, insert = 1, update = 1)
+    public void givenDeletedEmployee_whenFind_thenHiddenButKept(){
+        //given - precondition or setup
+        employeeRepository.save(employee);
+        //when - action to test
+        employeeRepository.deleteById(employee.getId());
+        testEntityManager.flush();
+        //then - verify the output
+        Assertions.assertThat(employeeRepository.findByEmail(employee.getEmail())).isEmpty();
+        Assertions.assertThat(employeeRepository.findAll()).isEmpty();
+        Number rows = (Number) testEntityManager.getEntityManager()
+                .createNativeQuery("SELECT COUNT(*) FROM employees WHERE deleted_at IS NOT NULL").getSingleResult();
+        Assertions.assertThat(rows.longValue()).isEqualTo(1);
+    }
+
+    @DisplayName("Save an Employee again after deleting it")
+    @Test
+    @MaxQueries(select = 2, insert = 2, update = 1)
+    public void givenDeletedEmployee_whenSaveWithSameId_thenInsertedWithNewId(){
+        //given - precondition or setup
+        employeeRepository.save(employee);
+        long deletedId = employee.getId();
+        employeeRepository.deleteById(deletedId);
+        testEntityManager.flush();
+        testEntityManager.clear();
+        //when - action to test
+        employee.setFirstName("Restored");
+        Employee saved = employeeRepository.save(employee);
+        testEntityManager.flush();
+        //then - verify the output
+        Assertions.assertThat(saved.getId()).isNotEqualTo(deletedId);
+        Assertions.assertThat(employeeRepository.findById(deletedId)).isEmpty();
+        Assertions.assertThat(employeeRepository.findById(saved.getId()).get().getFirstName()).isEqualTo("Restored");
+    }
+
+    @DisplayName("Archive deleted Employees")
+    @Test
+    @MaxQueries(select = 5, insert = 4, update = 2, delete = 2)
+    public void givenDeletedEmployees_whenArchiveDeleted_thenMovedToArchive(){
+        //given - precondition or setup
+        Employee employee2 = employeeRepository.save(Employee.builder().firstName("John").lastName("Doe").email("john@gmail.com").build());
+        employeeRepository.save(employee);
+        employeeRepository.deleteById(employee.getId());
+        employeeRepository.deleteById(employee2.getId());
+        testEntityManager.flush();
+        //when - action to test
+        int first = employeeRepository.archiveDeleted(1);
+        int second = employeeRepository.archiveDeleted(10);
+        int third = employeeRepository.archiveDeleted(10);
+        //then - verify the output
+        Assertions.assertThat(List.of(first, second, third)).containsExactly(1, 1, 0);
+        EmployeeArchive archived = testEntityManager.find(EmployeeArchive.class, employee.getId());
+        Assertions.assertThat(archived.getEmail()).isEqualTo(employee.getEmail());
+        Assertions.assertThat(archived.getDeletedAt()).isNotNull();
+        Assertions.assertThat(testEntityManager.find(EmployeeArchive.class, employee2.getId())).isNotNull();
+    }
+
+    @DisplayName("Search Employees by email domain and name prefix")
+    @Test
+    @MaxQueries(select = 1, insert = 4)
+    public void givenEmployees_whenSearch_thenReturnMatchingEmployeesInOrder(){
+        //given - precondition or setup
+        employeeRepository.save(employee);
+        employeeRepository.save(Employee.builder().firstName("Ana").lastName("Chen").email("ana@Example.com").build());
+        employeeRepository.save(Employee.builder().firstName("Carl").lastName("Cho").email("carl@example.com").build());
+        employeeRepository.save(Employee.builder().firstName("Dan").lastName("Diaz").email("dan@example.com").build());
+        //when - action to test
+        List<Employee> employees = employeeRepository.search(
+                EmployeeCriteria.of("@EXAMPLE.com", "Ch", Sort.by(Sort.Direction.DESC, "lastName")));
+        //then - verify the output
+        Assertions.assertThat(employees).extracting(Employee::getLastName).containsExactly("Cho", "Chen");
+    }
+
+    @DisplayName("Search Employees by a changed email domain")
+    @Test
+    @MaxQueries(select = 2, insert = 1, update = 1)
+    public void givenUpdatedEmail_whenSearchByEmailDomain_thenReturnEmployee(){
+        //given - precondition or setup
+        employeeRepository.save(employee);
+        employee.setEmail("rodrigo@example.com");
+        employeeRepository.saveAndFlush(employee);
+        //when - action to test
+        List<Employee> oldDomain = employeeRepository.search(EmployeeCriteria.of("gmail.com", null, Sort.unsorted()));
+        List<Employee> newDomain = employeeRepository.search(EmployeeCriteria.of("example.com", null, Sort.unsorted()));
+        //then - verify the output
+        Assertions.assertThat(oldDomain).isEmpty();
+        Assertions.assertThat(newDomain).extracting(Employee::getId).containsExactly(employee.getId());
+    }
 }
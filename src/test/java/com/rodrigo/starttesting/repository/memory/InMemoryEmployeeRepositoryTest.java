@@ -0,0 +1,282 @@
+package com.rodrigo.starttesting.repository.memory;
+
+import com.rodrigo.starttesting.model.Employee;
+import com.rodrigo.starttesting.repository.EmployeeCriteria;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+public class InMemoryEmployeeRepositoryTest {
+
+    private InMemoryEmployeeRepository employeeRepository;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository = new InMemoryEmployeeRepository("");
+        employee = Employee.builder().firstName("Rodrigo").lastName("Chavez").email("rodrigo@gmail.com").build();
+    }
+
+    @DisplayName("Save Employee")
+    @Test
+    public void givenEmployeeObject_whenSave_thenReturnSavedEmployee() {
+        Employee savedEmployee = employeeRepository.save(employee);
+        Assertions.assertThat(savedEmployee).isNotNull();
+        Assertions.assertThat(savedEmployee.getId()).isGreaterThan(0);
+    }
+
+    @DisplayName("Get Employee by email")
+    @Test
+    public void givenEmployeeEmail_whenFindByEmail_thenReturnEmployeeObject() {
+        //given - precondition or setup
+        employeeRepository.save(employee);
+        //when - action to test
+        Employee employeeDB = employeeRepository.findByEmail(employee.getEmail()).get();
+        //then - verify the output
+        Assertions.assertThat(employeeDB.getId()).isEqualTo(employee.getId());
+    }
+
+    @DisplayName("Update Employee")
+    @Test
+    public void givenEmployeeObject_whenUpdateEmployee_thenReindex() {
+        //given - precondition or setup
+        employeeRepository.save(employee);
+        //when - action to test
+        Employee savedEmployee = employeeRepository.findById(employee.getId()).get();
+        savedEmployee.setEmail("ro@gmail.com");
+        savedEmployee.setFirstName("John");
+        employeeRepository.save(savedEmployee);
+        //then - verify the output
+        Assertions.assertThat(employeeRepository.findByEmail("rodrigo@gmail.com")).isEmpty();
+        Assertions.assertThat(employeeRepository.findByEmail("ro@gmail.com")).isPresent();
+        Assertions.assertThat(employeeRepository.findByJPQL("Rodrigo", "Chavez")).isNull();
+        Assertions.assertThat(employeeRepository.findByJPQL("John", "Chavez").getEmail()).isEqualTo("ro@gmail.com");
+        Assertions.assertThat(employeeRepository.count()).isEqualTo(1);
+    }
+
+    @DisplayName("Find by email and name ignoring case")
+    @Test
+    public void givenEmployeeObject_whenFindWithOtherCase_thenReturnEmployeeObject() {
+        //given - precondition or setup
+        employeeRepository.save(employee);
+        //when - action to test
+        Optional<Employee> byEmail = employeeRepository.findByEmail("RODRIGO@Gmail.com");
+        Employee byName = employeeRepository.findByJPQL("rodrigo", "CHAVEZ");
+        //then - verify the output
+        Assertions.assertThat(byEmail).isPresent();
+        Assertions.assertThat(byName).isNotNull();
+    }
+
+    @DisplayName("Delete Employee")
+    @Test
+    public void givenEmployeeObject_whenDelete_thenRemoveEmployee() {
+        //given - precondition or setup
+        employeeRepository.save(employee);
+        //when - action to test
+        employeeRepository.deleteById(employee.getId());
+        Optional<Employee> employeeOptional = employeeRepository.findById(employee.getId());
+        //then - verify the output
+        Assertions.assertThat(employeeOptional).isEmpty();
+        Assertions.assertThat(employeeRepository.findByEmail(employee.getEmail())).isEmpty();
+    }
+
+    @DisplayName("Get Employee by custom query")
+    @Test
+    public void givenFirstNameAndLastName_whenFindByJPQL_thenReturnEmployeeObject() {
+        //given - precondition or setup
+        employeeRepository.save(employee);
+        //when - action to test
+        Employee employeeDB = employeeRepository.findByJPQL("Rodrigo", "Chavez");
+        //then - verify the output
+        Assertions.assertThat(employeeDB).isNotNull();
+    }
+
+    @DisplayName("Get Employee by custom query with named params")
+    @Test
+    public void givenFirstNameAndLastName_whenFindByJPQLNamedParams_thenReturnEmployeeObject() {
+        //given - precondition or setup
+        employeeRepository.save(employee);
+        //when - action to test
+        Employee employeeDB = employeeRepository.findByJPQLNamedParams("Rodrigo", "Chavez");
+        //then - verify the output
+        Assertions.assertThat(employeeDB).isNotNull();
+    }
+
+    @DisplayName("Grow, churn and sort")
+    @Test
+    public void givenManyEmployees_whenChurn_thenStoreStaysConsistent() {
+        //given - precondition or setup
+        IntStream.range(0, 5000).forEach(i -> employeeRepository.save(Employee.builder()
+                .firstName("First" + i).lastName("Last" + (i % 7)).email("e" + i + "@test.com").build()));
+        //when - action to test
+        for (long id = 1; id <= 5000; id += 2) {
+            employeeRepository.deleteById(id);
+        }
+        for (long id = 2; id <= 5000; id += 2) {
+            Employee saved = employeeRepository.findById(id).get();
+            saved.setFirstName(saved.getFirstName() + "-updated-with-a-much-longer-name");
+            employeeRepository.save(saved);
+        }
+        //then - verify the output
+        Assertions.assertThat(employeeRepository.count()).isEqualTo(2500);
+        Assertions.assertThat(employeeRepository.findByEmail("e3999@test.com").get().getFirstName())
+                .isEqualTo("First3999-updated-with-a-much-longer-name");
+        List<Employee> page = employeeRepository.findAll(PageRequest.of(1, 10, Sort.by(Sort.Direction.DESC, "id"))).getContent();
+        Assertions.assertThat(page).extracting(Employee::getId).startsWith(4980L, 4978L);
+    }
+
+    @DisplayName("Snapshot and restore")
+    @Test
+    public void givenSnapshot_whenNewRepository_thenRestoreEmployees(@TempDir Path directory) {
+        //given - precondition or setup
+        Path snapshot = directory.resolve("employees.snapshot");
+        employeeRepository.save(employee);
+        employeeRepository.snapshot(snapshot);
+        //when - action to test
+        InMemoryEmployeeRepository restored = new InMemoryEmployeeRepository(snapshot.toString());
+        Employee next = restored.save(Employee.builder().firstName("John").lastName("Doe").email("john@gmail.com").build());
+        //then - verify the output
+        Assertions.assertThat(restored.findByEmail(employee.getEmail())).isPresent();
+        Assertions.assertThat(next.getId()).isEqualTo(employee.getId() + 1);
+    }
+
+    @DisplayName("Search Employees by email domain and name prefix")
+    @Test
+    public void givenEmployees_whenSearch_thenReturnMatchingEmployeesInOrder() {
+        //given - precondition or setup
+        employeeRepository.save(employee);
+        employeeRepository.save(Employee.builder().firstName("Ana").lastName("Chen").email("ana@Example.com").build());
+        employeeRepository.save(Employee.builder().firstName("Carl").lastName("Cho").email("carl@example.com").build());
+        employeeRepository.save(Employee.builder().firstName("Dan").lastName("Diaz").email("dan@example.com").build());
+        //when - action to test
+        List<Employee> employees = employeeRepository.search(
+                EmployeeCriteria.of("example.com", "Ch", Sort.by(Sort.Direction.DESC, "lastName")));
+        //then - verify the output
+        Assertions.assertThat(employees).extracting(Employee::getLastName).containsExactly("Cho", "Chen");
+    }
+
+    @DisplayName("Search Employees by name prefix ignoring case")
+    @Test
+    public void givenMixedCaseAndMissingLastNames_whenSearchByNamePrefix_thenMatchIgnoringCase() {
+        //given - precondition or setup
+        employeeRepository.save(Employee.builder().firstName("Ana").lastName("chen").email("ana@example.com").build());
+        employeeRepository.save(Employee.builder().firstName("Carl").lastName("CHO").email("carl@example.com").build());
+        employeeRepository.save(Employee.builder().firstName("Dan").email("dan@example.com").build());
+        //when - action to test
+        List<Employee> employees = employeeRepository.search(EmployeeCriteria.of(null, "Ch", Sort.by("lastName")));
+        //then - verify the output
+        Assertions.assertThat(employees).extracting(Employee::getLastName).containsExactly("chen", "CHO");
+    }
+
+    @DisplayName("Ignore non-positive ids after deletes leave removed slots")
+    @Test
+    public void givenDeletedEmployees_whenFindOrDeleteNonPositiveId_thenNothingChanges() {
+        //given - precondition or setup
+        IntStream.range(0, 3000).forEach(i -> employeeRepository.save(Employee.builder()
+                .firstName("First" + i).lastName("Last" + i).email("employee" + i + "@gmail.com").build()));
+        for (long id = 1; id <= 2184; id++) {
+            employeeRepository.deleteById(id);
+        }
+        //when - action to test
+        Optional<Employee> removed = employeeRepository.findById(-1L);
+        boolean exists = employeeRepository.existsById(0L);
+        employeeRepository.deleteById(-1L);
+        employeeRepository.deleteById(0L);
+        //then - verify the output
+        Assertions.assertThat(removed).isEmpty();
+        Assertions.assertThat(exists).isFalse();
+        Assertions.assertThat(employeeRepository.count()).isEqualTo(816);
+        Assertions.assertThat(employeeRepository.findAll()).hasSize(816);
+    }
+
+    @DisplayName("Concurrent saves, deletes and reads stay consistent")
+    @Test
+    public void givenConcurrentWritersAndReaders_whenSaveUpdateDelete_thenIndexesAndRecordsAgree() throws Exception {
+        //given - precondition or setup
+        int writers = 4;
+        int perWriter = 600;
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 2);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Map<Long, String> survivors = new ConcurrentHashMap<>();
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                writes.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perWriter; i++) {
+                        Employee saved = employeeRepository.save(Employee.builder()
+                                .firstName("F" + writer).lastName("L" + i).email(writer + "-" + i + "@example.com").build());
+                        if (i % 3 == 0) {
+                            saved.setEmail(writer + "-" + i + "@changed.com");
+                            employeeRepository.save(saved);
+                        }
+                        if (i % 2 == 0) {
+                            employeeRepository.deleteById(saved.getId());
+                        } else {
+                            survivors.put(saved.getId(), saved.getEmail());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            List<Future<?>> reads = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                reads.add(executor.submit(() -> {
+                    start.await();
+                    while (writing.get()) {
+                        for (Employee read : employeeRepository.findAll()) {
+                            // a torn record would mix fields of different employees
+                            Assertions.assertThat(read.getEmail())
+                                    .startsWith(read.getFirstName().substring(1) + "-" + read.getLastName().substring(1) + "@");
+                            employeeRepository.findByEmail(read.getEmail())
+                                    .ifPresent(found -> Assertions.assertThat(found.getId()).isEqualTo(read.getId()));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            //when - action to test
+            start.countDown();
+            for (Future<?> write : writes) {
+                write.get(60, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            for (Future<?> read : reads) {
+                read.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        //then - verify the output
+        Assertions.assertThat(employeeRepository.count()).isEqualTo(writers * perWriter / 2);
+        Assertions.assertThat(employeeRepository.findAll()).extracting(Employee::getId)
+                .containsExactlyInAnyOrderElementsOf(survivors.keySet());
+        survivors.forEach((id, email) -> {
+            Assertions.assertThat(employeeRepository.findByEmail(email)).map(Employee::getId).contains(id);
+            Assertions.assertThat(employeeRepository.findById(id)).map(Employee::getEmail).contains(email);
+        });
+        Assertions.assertThat(employeeRepository.findByEmail("0-0@example.com")).isEmpty();
+        Assertions.assertThat(employeeRepository.findByEmail("0-0@changed.com")).isEmpty();
+    }
+}
@@ -0,0 +1,260 @@
+package com.rodrigo.starttesting.repository.sharding;
+
+import com.rodrigo.starttesting.model.Employee;
+import com.rodrigo.starttesting.model.EmployeeCount;
+import com.rodrigo.starttesting.repository.EmployeeCriteria;
+import org.assertj.core.api.Assertions;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+public class ShardedEmployeeRepositoryTest {
+
+    private static final int SHARDS = 3;
+
+    private List<EmployeeShard> shards;
+
+    private ShardedEmployeeRepository employeeRepository;
+
+    @BeforeEach
+    public void setup() {
+        String run = UUID.randomUUID().toString();
+        shards = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            DataSource dataSource = DataSourceBuilder.create()
+                    .url("jdbc:h2:mem:shard" + i + "-" + run + ";DB_CLOSE_DELAY=-1")
+                    .username("sa")
+                    .password("")
+                    .build();
+            new ResourceDatabasePopulator(new ClassPathResource("sharding/schema-h2.sql")).execute(dataSource);
+            shards.add(new EmployeeShard(i, SHARDS, dataSource, 5));
+        }
+        employeeRepository = new ShardedEmployeeRepository(shards, false);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        employeeRepository.close();
+    }
+
+    @DisplayName("Route employees to their shard")
+    @Test
+    public void givenEmployees_whenSave_thenEachRowLivesOnItsIdShard() {
+        //given - precondition or setup
+        List<Employee> saved = saveEmployees(40);
+        //when - action to test
+        //then - verify the output
+        Assertions.assertThat(saved).extracting(Employee::getId).doesNotHaveDuplicates();
+        for (Employee employee : saved) {
+            int shard = employeeRepository.shardForId(employee.getId());
+            Assertions.assertThat(shard).isEqualTo(employeeRepository.shardForEmail(employee.getEmail()));
+            for (EmployeeShard candidate : shards) {
+                Long rows = new JdbcTemplate(candidate.getDataSource())
+                        .queryForObject("SELECT COUNT(*) FROM employees WHERE id = ?", Long.class, employee.getId());
+                Assertions.assertThat(rows).isEqualTo(candidate.getIndex() == shard ? 1L : 0L);
+            }
+        }
+        Assertions.assertThat(shards).allSatisfy(shard ->
+                Assertions.assertThat(new JdbcTemplate(shard.getDataSource())
+                        .queryForObject("SELECT COUNT(*) FROM employees", Long.class)).isGreaterThan(0L));
+    }
+
+    @DisplayName("Find, update and delete by id")
+    @Test
+    public void givenEmployee_whenUpdateAndDelete_thenRoutedToOwningShard() {
+        //given - precondition or setup
+        Employee employee = employeeRepository.save(Employee.builder()
+                .firstName("Rodrigo").lastName("Chavez").email("rodrigo@gmail.com").build());
+        //when - action to test
+        Employee savedEmployee = employeeRepository.findById(employee.getId()).get();
+        savedEmployee.setEmail("someone-else@gmail.com");
+        employeeRepository.save(savedEmployee);
+        //then - verify the output
+        Assertions.assertThat(employeeRepository.findByEmail("someone-else@gmail.com").get().getId()).isEqualTo(employee.getId());
+        Assertions.assertThat(employeeRepository.findByJPQL("Rodrigo", "Chavez")).isNotNull();
+        Assertions.assertThat(employeeRepository.count()).isEqualTo(1);
+        employeeRepository.deleteById(employee.getId());
+        Assertions.assertThat(employeeRepository.findById(employee.getId())).isEmpty();
+    }
+
+    @DisplayName("List across shards")
+    @Test
+    public void givenEmployeesOnAllShards_whenFindAll_thenMergedInIdOrder() {
+        //given - precondition or setup
+        List<Employee> saved = saveEmployees(25);
+        //when - action to test
+        List<Employee> employees = employeeRepository.findAll();
+        //then - verify the output
+        Assertions.assertThat(employees).extracting(Employee::getId)
+                .containsExactlyElementsOf(saved.stream().map(Employee::getId).sorted().toList());
+    }
+
+    @DisplayName("Page across shards")
+    @Test
+    public void givenEmployeesOnAllShards_whenFindPage_thenSameAsSortingEverything() {
+        //given - precondition or setup
+        List<Employee> saved = saveEmployees(25);
+        List<Employee> expected = saved.stream()
+                .sorted(Comparator.comparing(Employee::getLastName).reversed().thenComparingLong(Employee::getId))
+                .toList();
+        //when - action to test
+        Page<Employee> page = employeeRepository.findAll(PageRequest.of(2, 7, Sort.by(Sort.Direction.DESC, "lastName")));
+        //then - verify the output
+        Assertions.assertThat(page.getTotalElements()).isEqualTo(25);
+        Assertions.assertThat(page.getContent()).extracting(Employee::getId)
+                .containsExactlyElementsOf(expected.subList(14, 21).stream().map(Employee::getId).toList());
+    }
+
+    @DisplayName("Count across shards")
+    @Test
+    public void givenEmployeesOnAllShards_whenCountByGroup_thenSumShards() {
+        //given - precondition or setup
+        saveEmployees(25);
+        //when - action to test
+        List<EmployeeCount> counts = employeeRepository.countByEmailDomain();
+        //then - verify the output
+        Assertions.assertThat(counts).extracting(EmployeeCount::getKey, EmployeeCount::getCount)
+                .containsExactly(Tuple.tuple("gmail.com", 25L));
+        Assertions.assertThat(employeeRepository.countByLastNameInitial()).extracting(EmployeeCount::getKey, EmployeeCount::getCount)
+                .containsExactly(Tuple.tuple("L", 25L));
+    }
+
+    @DisplayName("Soft delete and archive across shards")
+    @Test
+    public void givenDeletedEmployees_whenArchiveDeleted_thenMovedToArchive() {
+        //given - precondition or setup
+        List<Employee> saved = saveEmployees(12);
+        saved.subList(0, 8).forEach(employee -> employeeRepository.deleteById(employee.getId()));
+        //when - action to test
+        long hiddenBeforeArchive = employeeRepository.count();
+        int first = employeeRepository.archiveDeleted(1);
+        int rest = employeeRepository.archiveDeleted(100);
+        //then - verify the output
+        Assertions.assertThat(hiddenBeforeArchive).isEqualTo(4);
+        Assertions.assertThat(first + rest).isEqualTo(8);
+        Assertions.assertThat(employeeRepository.archiveDeleted(100)).isZero();
+        Assertions.assertThat(employeeRepository.findAll()).extracting(Employee::getId)
+                .containsExactlyElementsOf(saved.subList(8, 12).stream().map(Employee::getId).sorted().toList());
+        long archived = shards.stream()
+                .mapToLong(shard -> new JdbcTemplate(shard.getDataSource())
+                        .queryForObject("SELECT COUNT(*) FROM employees_archive", Long.class))
+                .sum();
+        Assertions.assertThat(archived).isEqualTo(8);
+    }
+
+    @DisplayName("Search every shard by email domain and name prefix")
+    @Test
+    public void givenEmployeesOnAllShards_whenSearch_thenMergedInOrder() {
+        //given - precondition or setup
+        List<Employee> saved = saveEmployees(30);
+        employeeRepository.save(Employee.builder().firstName("Other").lastName("Last1").email("other@example.com").build());
+        //when - action to test
+        List<Employee> employees = employeeRepository.search(
+                EmployeeCriteria.of("gmail.com", "Last", Sort.by(Sort.Direction.DESC, "lastName")));
+        //then - verify the output
+        Assertions.assertThat(employees).extracting(Employee::getId).containsExactlyElementsOf(saved.stream()
+                .sorted(Comparator.comparing(Employee::getLastName).thenComparing(Employee::getId).reversed())
+                .map(Employee::getId)
+                .toList());
+    }
+
+    @DisplayName("Save an employee again after deleting it")
+    @Test
+    public void givenDeletedEmployee_whenSaveWithSameId_thenInsertedWithNewId() {
+        //given - precondition or setup
+        Employee employee = saveEmployees(1).get(0);
+        long deletedId = employee.getId();
+        employeeRepository.deleteById(deletedId);
+        //when - action to test
+        employee.setFirstName("Restored");
+        employeeRepository.save(employee);
+        //then - verify the output
+        Assertions.assertThat(employee.getId()).isNotEqualTo(deletedId);
+        Assertions.assertThat(employeeRepository.findById(deletedId)).isEmpty();
+        Assertions.assertThat(employeeRepository.findById(employee.getId()))
+                .hasValueSatisfying(saved -> Assertions.assertThat(saved.getFirstName()).isEqualTo("Restored"));
+        Assertions.assertThat(employeeRepository.count()).isEqualTo(1);
+        Assertions.assertThat(employeeRepository.archiveDeleted(10)).isEqualTo(1);
+    }
+
+    @DisplayName("Run concurrent requests against a shard in parallel")
+    @Test
+    public void givenConcurrentRequests_whenFindAll_thenShardQueriesDoNotQueueBehindEachOther() throws Exception {
+        //given - precondition or setup
+        int requests = 8;
+        List<Employee> saved = saveEmployees(12);
+        // every shard query waits until all requests have a query in flight on that shard
+        List<EmployeeShard> gatedShards = shards.stream()
+                .map(shard -> new EmployeeShard(shard.getIndex(), SHARDS,
+                        gated(shard.getDataSource(), new CountDownLatch(requests)), 5))
+                .toList();
+        ShardedEmployeeRepository gatedRepository = new ShardedEmployeeRepository(gatedShards, false);
+        ExecutorService clients = Executors.newFixedThreadPool(requests);
+        try {
+            //when - action to test
+            List<Future<List<Employee>>> responses = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                responses.add(clients.submit(() -> gatedRepository.findAll()));
+            }
+            //then - verify the output
+            for (Future<List<Employee>> response : responses) {
+                Assertions.assertThat(response.get(30, TimeUnit.SECONDS)).hasSameSizeAs(saved);
+            }
+        } finally {
+            clients.shutdownNow();
+            gatedRepository.close();
+        }
+    }
+
+    private static DataSource gated(DataSource dataSource, CountDownLatch inFlight) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                inFlight.countDown();
+                try {
+                    if (!inFlight.await(10, TimeUnit.SECONDS)) {
+                        throw new SQLException("Shard queries were queued instead of running in parallel");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException(e);
+                }
+                return super.getConnection();
+            }
+        };
+    }
+
+    private List<Employee> saveEmployees(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> employeeRepository.save(Employee.builder()
+                        .firstName("First" + i)
+                        .lastName("Last" + (i % 6))
+                        .email("employee" + i + "@gmail.com")
+                        .build()))
+                .toList();
+    }
+}
@@ -1,8 +1,12 @@
 package com.rodrigo.starttesting.service;
 
+import com.rodrigo.starttesting.deadline.RequestDeadline;
+import com.rodrigo.starttesting.event.EmployeeChangeEvent;
+import com.rodrigo.starttesting.exception.DeadlineExceededException;
 import com.rodrigo.starttesting.exception.ResourceNotFoundException;
 import com.rodrigo.starttesting.model.Employee;
-import com.rodrigo.starttesting.repository.EmployeeRepository;
+import com.rodrigo.starttesting.repository.EmployeeCriteria;
+import com.rodrigo.starttesting.repository.EmployeeStore;
 import com.rodrigo.starttesting.service.impl.EmployeeServiceImpl;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +17,8 @@ import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 
 import java.util.Collections;
 import java.util.List;
@@ -25,7 +31,10 @@ import static org.mockito.Mockito.*;
 public class EmployeeServiceTests {
 
     @Mock
-    private EmployeeRepository employeeRepository;
+    private EmployeeStore employeeRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private EmployeeServiceImpl employeeService;
@@ -49,6 +58,10 @@ public class EmployeeServiceTests {
         Employee savedEmployee = employeeService.saveEmployee(employee);
         //then - verify the output
         Assertions.assertThat(savedEmployee).isNotNull();
+        verify(employeeRepository, times(1)).findByEmail(employee.getEmail());
+        verify(employeeRepository, times(1)).save(employee);
+        verifyNoMoreInteractions(employeeRepository);
+        verify(eventPublisher, times(1)).publishEvent(any(EmployeeChangeEvent.class));
     }
 
     @DisplayName("Save Employee Exception")
@@ -62,6 +75,7 @@ public class EmployeeServiceTests {
         });
         //then - verify the output
         verify(employeeRepository, never()).save(any(Employee.class));
+        verify(eventPublisher, never()).publishEvent(any(EmployeeChangeEvent.class));
     }
 
     @DisplayName("Get All Employees")
@@ -80,6 +94,8 @@ public class EmployeeServiceTests {
         //then - verify the output
         Assertions.assertThat(employeeList).isNotNull();
         Assertions.assertThat(employeeList.size()).isEqualTo(2);
+        verify(employeeRepository, times(1)).findAll();
+        verifyNoMoreInteractions(employeeRepository);
     }
 
     @DisplayName("Get All Employees Empty")
@@ -94,6 +110,20 @@ public class EmployeeServiceTests {
         Assertions.assertThat(employeeList.size()).isEqualTo(0);
     }
 
+    @DisplayName("Search Employees")
+    @Test
+    public void givenCriteria_whenSearchEmployees_thenReturnRepositoryResult(){
+        //given - precondition or setup
+        EmployeeCriteria criteria = EmployeeCriteria.of("gmail.com", "Ch", Sort.by("lastName"));
+        BDDMockito.given(employeeRepository.search(criteria)).willReturn(List.of(employee));
+        //when - action to test
+        List<Employee> employeeList = employeeService.searchEmployees(criteria);
+        //then - verify the output
+        Assertions.assertThat(employeeList).containsExactly(employee);
+        verify(employeeRepository, times(1)).search(criteria);
+        verifyNoMoreInteractions(employeeRepository);
+    }
+
     @DisplayName("Get Employee by id")
     @Test
     public void givenEmployeeId_whenGetEmployeeById_thenReturnEmployeeObject(){
@@ -103,6 +133,8 @@ public class EmployeeServiceTests {
         Employee savedEmployee = employeeService.getEmployeeById(1L).get();
         //then - verify the output
         Assertions.assertThat(savedEmployee).isNotNull();
+        verify(employeeRepository, times(1)).findById(employee.getId());
+        verifyNoMoreInteractions(employeeRepository);
     }
 
     @DisplayName("Update")
@@ -116,16 +148,51 @@ public class EmployeeServiceTests {
         //then - verify the output
         Assertions.assertThat(savedEmployee).isNotNull();
         Assertions.assertThat(savedEmployee.getFirstName()).isEqualTo("John");
+        verify(employeeRepository, times(1)).findById(employee.getId());
+        verify(employeeRepository, times(1)).save(employee);
+        verifyNoMoreInteractions(employeeRepository);
     }
 
     @DisplayName("Delete Employee")
     @Test
     public void givenId_whenDelete_then(){
         //given - precondition or setup
+        BDDMockito.given(employeeRepository.findById(employee.getId())).willReturn(Optional.of(employee));
         BDDMockito.willDoNothing().given(employeeRepository).deleteById(employee.getId());
         //when - action to test
         employeeService.deleteEmployee(employee.getId());
         //then - verify the output
+        verify(employeeRepository, times(1)).findById(employee.getId());
         verify(employeeRepository, times(1)).deleteById(employee.getId());
+        verifyNoMoreInteractions(employeeRepository);
+        verify(eventPublisher, times(1)).publishEvent(any(EmployeeChangeEvent.class));
+    }
+
+    @DisplayName("Delete missing Employee")
+    @Test
+    public void givenMissingId_whenDelete_thenNothingIsDeletedOrPublished(){
+        //given - precondition or setup
+        BDDMockito.given(employeeRepository.findById(employee.getId())).willReturn(Optional.empty());
+        //when - action to test
+        employeeService.deleteEmployee(employee.getId());
+        //then - verify the output
+        verify(employeeRepository, times(1)).findById(employee.getId());
+        verifyNoMoreInteractions(employeeRepository);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @DisplayName("Get All Employees Deadline Passed")
+    @Test
+    public void givenExpiredDeadline_whenGetAllEmployees_thenThrowsException(){
+        //given - precondition or setup
+        RequestDeadline.set(RequestDeadline.afterMillis(0));
+        //when - action to test
+        try {
+            org.junit.jupiter.api.Assertions.assertThrows(DeadlineExceededException.class, () -> employeeService.getAllEmployees());
+        } finally {
+            RequestDeadline.clear();
+        }
+        //then - verify the output
+        verifyNoInteractions(employeeRepository);
     }
 }
@@ -0,0 +1,30 @@
+package com.rodrigo.starttesting.sql;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails the test when its body executes more statements of a kind than allowed.
+ * Unlisted kinds default to zero, so any new round trip has to be accounted for here.
+ * A method-level annotation replaces the class-level one. Statements are only seen
+ * through a {@link QueryCountingDataSource}, see {@link QueryCountingConfiguration}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@ExtendWith(MaxQueriesExtension.class)
+public @interface MaxQueries {
+
+    long select() default 0;
+
+    long insert() default 0;
+
+    long update() default 0;
+
+    long delete() default 0;
+}
@@ -0,0 +1,50 @@
+package com.rodrigo.starttesting.sql;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Counts statements around the test method body only, so {@code @BeforeEach}
+ * setup and cleanup are not charged to the test.
+ */
+public class MaxQueriesExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        QueryCounter.reset();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        Optional<MaxQueries> limits = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), MaxQueries.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), MaxQueries.class));
+        if (limits.isEmpty() || context.getExecutionException().isPresent()) {
+            return;
+        }
+        if (!QueryCounter.isInstalled()) {
+            throw new AssertionError("@MaxQueries needs a QueryCountingDataSource, import QueryCountingConfiguration");
+        }
+        MaxQueries max = limits.get();
+        List<String> exceeded = new ArrayList<>();
+        check(exceeded, QueryCounter.Type.SELECT, max.select());
+        check(exceeded, QueryCounter.Type.INSERT, max.insert());
+        check(exceeded, QueryCounter.Type.UPDATE, max.update());
+        check(exceeded, QueryCounter.Type.DELETE, max.delete());
+        if (!exceeded.isEmpty()) {
+            throw new AssertionError("Too many statements in " + context.getDisplayName() + ": " + String.join(", ", exceeded));
+        }
+    }
+
+    private static void check(List<String> exceeded, QueryCounter.Type type, long max) {
+        long actual = QueryCounter.count(type);
+        if (actual > max) {
+            exceeded.add(type.name().toLowerCase() + " " + actual + " > " + max);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.rodrigo.starttesting.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Per-thread counts and text of executed SQL statements, fed by {@link QueryCountingDataSource}.
+ * Statements are attributed to the thread that executes them, so background work
+ * (schedulers, SSE dispatch) does not leak into a test's numbers.
+ */
+public final class QueryCounter {
+
+    public enum Type {
+        SELECT, INSERT, UPDATE, DELETE, OTHER
+    }
+
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[Type.values().length]);
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    private static volatile boolean installed;
+
+    private QueryCounter() {
+    }
+
+    public static void reset() {
+        COUNTS.remove();
+        STATEMENTS.remove();
+    }
+
+    public static long count(Type type) {
+        return COUNTS.get()[type.ordinal()];
+    }
+
+    /** Statements executed since the last {@link #reset()}, each batch entry once. */
+    public static List<String> statements() {
+        return new ArrayList<>(STATEMENTS.get());
+    }
+
+    static void record(String sql, int executions) {
+        COUNTS.get()[classify(sql).ordinal()] += executions;
+        STATEMENTS.get().add(sql);
+    }
+
+    static void markInstalled() {
+        installed = true;
+    }
+
+    static boolean isInstalled() {
+        return installed;
+    }
+
+    static Type classify(String sql) {
+        String statement = sql == null ? "" : sql.stripLeading().toLowerCase(Locale.ROOT);
+        if (statement.startsWith("select") || statement.startsWith("with")) {
+            return Type.SELECT;
+        }
+        if (statement.startsWith("insert")) {
+            return Type.INSERT;
+        }
+        if (statement.startsWith("update")) {
+            return Type.UPDATE;
+        }
+        if (statement.startsWith("delete")) {
+            return Type.DELETE;
+        }
+        return Type.OTHER;
+    }
+}
@@ -0,0 +1,94 @@
+package com.rodrigo.starttesting.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Proxies connections and statements to count every executed statement in {@link QueryCounter}.
+ * A batch counts once per batched row.
+ */
+public class QueryCountingDataSource extends DelegatingDataSource {
+
+    public QueryCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+        QueryCounter.markInstalled();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private static Connection counting(Connection connection) {
+        return (Connection) proxy(Connection.class, connection, (method, args, result) -> {
+            if (result instanceof PreparedStatement statement && args != null && args[0] instanceof String sql) {
+                return proxy(method.getReturnType(), statement, new StatementListener(sql));
+            }
+            if (result instanceof Statement statement && method.getReturnType() == Statement.class) {
+                return proxy(Statement.class, statement, new StatementListener(null));
+            }
+            return result;
+        });
+    }
+
+    private static Object proxy(Class<?> type, Object target, Listener listener) {
+        return Proxy.newProxyInstance(QueryCountingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                    return listener.afterInvoke(method, args, result);
+                });
+    }
+
+    @FunctionalInterface
+    private interface Listener {
+        Object afterInvoke(Method method, Object[] args, Object result);
+    }
+
+    private static final class StatementListener implements Listener {
+        private final String preparedSql;
+        private final List<String> batch = new ArrayList<>();
+
+        private StatementListener(String preparedSql) {
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object afterInvoke(Method method, Object[] args, Object result) {
+            String name = method.getName();
+            boolean hasSql = args != null && args.length > 0 && args[0] instanceof String;
+            switch (name) {
+                case "execute", "executeQuery", "executeUpdate", "executeLargeUpdate" ->
+                        QueryCounter.record(hasSql ? (String) args[0] : preparedSql, 1);
+                case "addBatch" -> batch.add(hasSql ? (String) args[0] : preparedSql);
+                case "executeBatch", "executeLargeBatch" -> {
+                    batch.forEach(sql -> QueryCounter.record(sql, 1));
+                    batch.clear();
+                }
+                case "clearBatch" -> batch.clear();
+                default -> {
+                }
+            }
+            return result;
+        }
+    }
+}